@@ -0,0 +1,51 @@
+package org.example.bench;
+
+import org.example.Discipline;
+import org.example.School;
+import org.example.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Детерміновані дані для бенчмарків: той самий seed дає ту саму школу в кожному форку
+final class BenchmarkData {
+    static final long SEED = 42L;
+    static final String[] DISCIPLINES = {
+            "Math", "Physics", "Chemistry", "Biology", "History", "Geography", "Literature", "Ukrainian",
+            "English", "German", "Art", "Music", "Informatics", "Economics", "Law", "Astronomy",
+            "Philosophy", "Psychology", "Ecology", "Drawing", "Algebra", "Geometry", "Sport", "Health",
+            "Technology", "Ethics", "Logic", "Statistics", "Rhetoric", "Latin", "Theatre", "Robotics"
+    };
+    private static final String[] FIRST_NAMES = {"Olena", "Ivan", "Maria", "Petro", "Anna", "Taras", "Oksana", "Andrii"};
+    private static final String[] LAST_NAMES = {"Shevchenko", "Kovalenko", "Bondarenko", "Tkachenko", "Kravchenko", "Melnyk"};
+
+    private BenchmarkData() {
+    }
+
+    static School school(int studentCount, int disciplineCount) {
+        School school = new School("Benchmark School");
+        school.addStudents(students(1, studentCount, disciplineCount, new SplittableRandom(SEED)));
+        return school;
+    }
+
+    static List<Student> students(int firstId, int count, int disciplineCount, SplittableRandom random) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(student(firstId + i, disciplineCount, random));
+        }
+        return students;
+    }
+
+    static Student student(int id, int disciplineCount, SplittableRandom random) {
+        Student student = new Student(id,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        List<Discipline> disciplines = new ArrayList<>(disciplineCount);
+        for (int d = 0; d < disciplineCount; d++) {
+            disciplines.add(new Discipline(DISCIPLINES[d % DISCIPLINES.length], 1 + random.nextInt(12)));
+        }
+        student.addOrUpdateDisciplines(disciplines);
+        return student;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.bench;
+
+import org.example.DataService;
+import org.example.School;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Експорт та імпорт у JSON і бінарний знімок; файли пишуться в тимчасовий каталог.
+// Для 10M учнів JSON-файли (експорт і вхідний для імпорту) займають кілька ГБ кожен,
+// а імпорт тримає в пам'яті дві школи, тож потрібні відповідні диск і -Xmx
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class DataServiceBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int studentCount;
+
+    @Param({"4", "16"})
+    int disciplineCount;
+
+    @Param({"json", "bin"})
+    String format;
+
+    private final DataService dataService = new DataService();
+    private School school;
+    private Path directory;
+    private String exportPath;
+    private String importPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        school = BenchmarkData.school(studentCount, disciplineCount);
+        directory = Files.createTempDirectory("school-bench");
+        exportPath = directory.resolve("export." + format).toString();
+        importPath = directory.resolve("import." + format).toString();
+        dataService.exportSchool(school, importPath, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Path.of(exportPath));
+        Files.deleteIfExists(Path.of(importPath));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public String export() throws IOException {
+        dataService.exportSchool(school, exportPath, null);
+        return exportPath;
+    }
+
+    @Benchmark
+    public School importSchool() throws IOException {
+        return dataService.importSchool(importPath);
+    }
+}
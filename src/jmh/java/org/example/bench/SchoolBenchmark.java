@@ -0,0 +1,110 @@
+package org.example.bench;
+
+import org.example.School;
+import org.example.Student;
+import org.example.StudentOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Операції моделі School на школах від 1K до 10M учнів
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class SchoolBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int studentCount;
+
+    @Param({"4", "16"})
+    int disciplineCount;
+
+    private School school;
+    private int[] lookupIds;
+    private Student[] replacements;
+    private Student extraStudent;
+    private int cursor;
+    private boolean sortById;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        school = BenchmarkData.school(studentCount, disciplineCount);
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED + 1);
+        lookupIds = new int[1 << 16];
+        for (int i = 0; i < lookupIds.length; i++) {
+            lookupIds[i] = 1 + random.nextInt(studentCount);
+        }
+        replacements = new Student[1 << 10];
+        for (int i = 0; i < replacements.length; i++) {
+            replacements[i] = BenchmarkData.student(lookupIds[i], disciplineCount, random);
+        }
+        extraStudent = BenchmarkData.student(studentCount + 1, disciplineCount, random);
+    }
+
+    // Додавання і видалення міряються окремо: протилежна операція (видалення - O(n)) виконується
+    // в @Setup(Level.Invocation) і до виміру не входить, а розмір школи між викликами не змінюється
+    @Benchmark
+    public boolean addStudent(ExtraStudentAbsent absent) {
+        return school.addStudent(extraStudent);
+    }
+
+    @Benchmark
+    public boolean removeStudent(ExtraStudentPresent present) {
+        return school.removeStudent(extraStudent.getId());
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExtraStudentAbsent {
+        @Setup(Level.Invocation)
+        public void removeExtraStudent(SchoolBenchmark benchmark) {
+            benchmark.school.removeStudent(benchmark.extraStudent.getId());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExtraStudentPresent {
+        @Setup(Level.Invocation)
+        public void addExtraStudent(SchoolBenchmark benchmark) {
+            benchmark.school.addStudent(benchmark.extraStudent);
+        }
+    }
+
+    @Benchmark
+    public Optional<Student> getStudentById() {
+        return school.getStudentById(lookupIds[cursor++ & (lookupIds.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean updateStudent() {
+        return school.updateStudent(replacements[cursor++ & (replacements.length - 1)]);
+    }
+
+    @Benchmark
+    public double calculateSchoolAverageGrade() {
+        return school.calculateSchoolAverageGrade();
+    }
+
+    // Порядки чергуються, щоб кожне сортування отримувало невідсортований вхід
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public School sortStudents() {
+        sortById = !sortById;
+        school.sortStudents((sortById ? StudentOrder.BY_ID : StudentOrder.BY_AVERAGE_DESC).comparator());
+        return school;
+    }
+}
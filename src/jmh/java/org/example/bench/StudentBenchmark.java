@@ -0,0 +1,80 @@
+package org.example.bench;
+
+import org.example.Discipline;
+import org.example.DisciplineVisitor;
+import org.example.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Оновлення оцінок одного учня залежно від кількості його дисциплін
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentBenchmark {
+    @Param({"1", "8", "32"})
+    int disciplineCount;
+
+    private Student student;
+    private Discipline[] updates;
+    private int cursor;
+    private int gradeSum;
+    private final DisciplineVisitor summingVisitor = (name, grade) -> gradeSum += grade;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        student = BenchmarkData.student(1, disciplineCount, random);
+        updates = new Discipline[256];
+        for (int i = 0; i < updates.length; i++) {
+            // Оновлення наявних дисциплін, у різному регістрі назв
+            String name = BenchmarkData.DISCIPLINES[random.nextInt(disciplineCount)];
+            updates[i] = new Discipline(i % 2 == 0 ? name : name.toUpperCase(), 1 + random.nextInt(12));
+        }
+    }
+
+    @Benchmark
+    public Student addOrUpdateDiscipline() {
+        student.addOrUpdateDiscipline(updates[cursor++ & (updates.length - 1)]);
+        return student;
+    }
+
+    @Benchmark
+    public double calculateAverageGrade() {
+        return student.calculateAverageGrade();
+    }
+
+    // Читання дисциплін: копія на кожен виклик проти кешованого незмінного списку і обходу без алокацій
+    @Benchmark
+    public List<Discipline> getDisciplines() {
+        return student.getDisciplines();
+    }
+
+    @Benchmark
+    public List<Discipline> disciplinesView() {
+        return student.disciplinesView();
+    }
+
+    @Benchmark
+    public int forEachDiscipline() {
+        gradeSum = 0;
+        student.forEachDiscipline(summingVisitor);
+        return gradeSum;
+    }
+}
@@ -0,0 +1,234 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Фонове автозбереження школи. Кожна зміна лише збільшує лічильник версій і за потреби планує
+// збереження, тож виклики School не чекають на диск. Серія змін зливається в одне збереження:
+// воно відбувається, коли зміни стихли на debounceMillis, але не пізніше maxDelayMillis від першої
+// незбереженої зміни.
+// З журналом змін (MutationJournal) збереження - це скидання накопичених записів журналу на диск.
+// Без журналу пишеться весь файл: незмінна версія школи (School.snapshot()), тож учні не блокуються,
+// а файл узгоджений, навіть якщо школу змінюють під час запису. Запис - у тимчасовий файл поруч,
+// fsync і атомарне перейменування, тож на диску завжди цілий попередній або цілий новий знімок.
+public class AutosaveService implements SchoolListener, AutoCloseable {
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 2_000;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 30_000;
+
+    private final School school;
+    // Або журнал, або файл знімка
+    private final MutationJournal journal;
+    private final DataService dataService;
+    private final Path path;
+    private final Path tmpPath;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService saver;
+
+    // Версія змін і версія, що вже на диску
+    private final AtomicLong version = new AtomicLong();
+    private volatile long savedVersion;
+    private volatile long lastChangeNanos;
+    private volatile long firstPendingNanos;
+    // Чи заплановано збереження; скидається лише потоком збереження
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong saveCount = new AtomicLong();
+    private volatile IOException lastError;
+    private volatile boolean closed;
+
+    public AutosaveService(School school, DataService dataService, String filePath) {
+        this(school, dataService, filePath, DEFAULT_DEBOUNCE_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public AutosaveService(School school, DataService dataService, String filePath, long debounceMillis, long maxDelayMillis) {
+        this(school, null, dataService, filePath, debounceMillis, maxDelayMillis);
+    }
+
+    // school має бути школою, підключеною до journal (recover() чи attach())
+    public AutosaveService(School school, MutationJournal journal) {
+        this(school, journal, DEFAULT_DEBOUNCE_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public AutosaveService(School school, MutationJournal journal, long debounceMillis, long maxDelayMillis) {
+        this(school, journal, null, null, debounceMillis, maxDelayMillis);
+    }
+
+    private AutosaveService(School school, MutationJournal journal, DataService dataService, String filePath,
+                            long debounceMillis, long maxDelayMillis) {
+        if (school == null || (journal == null
+                && (dataService == null || filePath == null || filePath.trim().isEmpty()))) {
+            throw new IllegalArgumentException("School and either a journal or a data service and file path are required.");
+        }
+        if (debounceMillis < 0 || maxDelayMillis < debounceMillis) {
+            throw new IllegalArgumentException("Debounce must be non-negative and not exceed the maximum delay.");
+        }
+        this.school = school;
+        this.journal = journal;
+        this.dataService = dataService;
+        this.path = filePath == null ? null : Paths.get(filePath);
+        this.tmpPath = filePath == null ? null : Paths.get(filePath + ".tmp" + DataFormat.fromFileName(filePath).getExtension());
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "school-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        school.addSchoolListener(this);
+    }
+
+    // Викликається під блокуванням школи чи монітором учня: лише атомарні лічильники, без вводу-виводу
+    private void changed() {
+        long now = System.nanoTime();
+        lastChangeNanos = now;
+        version.incrementAndGet();
+        if (!closed && scheduled.compareAndSet(false, true)) {
+            firstPendingNanos = now;
+            schedule(debounceNanos);
+        }
+    }
+
+    private void schedule(long delayNanos) {
+        try {
+            saver.schedule(this::saveWhenQuiet, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            scheduled.set(false); // Сервіс закривається; close() збереже сам
+        }
+    }
+
+    private void saveWhenQuiet() {
+        long now = System.nanoTime();
+        long due = Math.min(lastChangeNanos + debounceNanos, firstPendingNanos + maxDelayNanos);
+        if (now - due < 0) {
+            schedule(due - now); // Зміни ще надходять - відкладаємо
+            return;
+        }
+        save();
+        scheduled.set(false);
+        // Зміни під час запису, що не встигли запланувати власне збереження
+        if (version.get() != savedVersion && !closed && scheduled.compareAndSet(false, true)) {
+            firstPendingNanos = System.nanoTime();
+            schedule(debounceNanos);
+        }
+    }
+
+    // Лише на потоці saver, тож записи ніколи не перетинаються
+    private void save() {
+        long target = version.get();
+        if (target == savedVersion) {
+            return;
+        }
+        try {
+            if (journal != null) {
+                // Журнал отримує зміни раніше за цей сервіс (підписаний першим), тож усі зміни до target уже в черзі
+                journal.sync();
+            } else {
+                writeFile();
+            }
+            savedVersion = target;
+            saveCount.incrementAndGet();
+            lastError = null;
+        } catch (IOException | RuntimeException e) {
+            lastError = e instanceof IOException ? (IOException) e : new IOException(e);
+            System.err.println("Autosave to " + (journal != null ? "journal" : path) + " failed: " + e.getMessage());
+        }
+    }
+
+    private void writeFile() throws IOException {
+        dataService.writeSnapshot(school.snapshot(), tmpPath.toString());
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Зберегти незбережені зміни зараз і дочекатися запису (наприклад, перед виходом)
+    public void flush() throws IOException {
+        try {
+            saver.submit(this::save).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for autosave.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Autosave failed.", e.getCause());
+        }
+        IOException error = lastError;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // Запланувати збереження без зміни школи (наприклад, щойно підключеної після імпорту)
+    public void markChanged() {
+        changed();
+    }
+
+    public boolean hasUnsavedChanges() {
+        return version.get() != savedVersion;
+    }
+
+    public long saveCount() {
+        return saveCount.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        school.removeSchoolListener(this);
+        try {
+            flush();
+        } finally {
+            saver.shutdownNow();
+        }
+    }
+
+    @Override
+    public void studentAdded(Student student) {
+        changed();
+    }
+
+    @Override
+    public void studentUpdated(Student student) {
+        changed();
+    }
+
+    @Override
+    public void studentRemoved(int studentId) {
+        changed();
+    }
+
+    @Override
+    public void disciplineUpserted(Student student, String disciplineName, int grade) {
+        changed();
+    }
+
+    @Override
+    public void disciplineRemoved(Student student, String disciplineName) {
+        changed();
+    }
+
+    @Override
+    public void schoolRenamed(String name) {
+        changed();
+    }
+
+    @Override
+    public void studentsReset(String schoolName, List<Student> students) {
+        changed();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Результат пакетної операції: скільки записів застосовано і які відхилено з причиною
+public final class BatchResult<T> {
+    private int acceptedCount;
+    private final List<Rejection<T>> rejected = new ArrayList<>();
+
+    void accept() {
+        acceptedCount++;
+    }
+
+    void reject(T record, String reason) {
+        rejected.add(new Rejection<>(record, reason));
+    }
+
+    // Додає підсумки іншого пакета, наприклад окремого учня чи шарду
+    void merge(BatchResult<? extends T> other) {
+        acceptedCount += other.acceptedCount;
+        for (Rejection<? extends T> rejection : other.rejected) {
+            reject(rejection.getRecord(), rejection.getReason());
+        }
+    }
+
+    // Причини відхилення в System.err, по рядку на запис (імпорт JSON і бінарного знімка)
+    void reportRejected() {
+        for (Rejection<T> rejection : rejected) {
+            System.err.println(rejection.getReason());
+        }
+    }
+
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public List<Rejection<T>> getRejected() {
+        return Collections.unmodifiableList(rejected);
+    }
+
+    public boolean isFullySuccessful() {
+        return rejected.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "accepted=" + acceptedCount +
+                ", rejected=" + rejected.size() +
+                '}';
+    }
+
+    public static final class Rejection<T> {
+        private final T record;
+        private final String reason;
+
+        Rejection(T record, String reason) {
+            this.record = record;
+            this.reason = reason;
+        }
+
+        public T getRecord() {
+            return record;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return record + ": " + reason;
+        }
+    }
+}
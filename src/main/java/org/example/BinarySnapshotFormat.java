@@ -0,0 +1,376 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Бінарний знімок школи (версія 1):
+ *   magic "SCHL", version (1 байт)
+ *   записи учнів: varint довжина запису +
+ *     varint id, varint ім'я, varint прізвище, varint кількість дисциплін,
+ *     для кожної: varint назва, zigzag-varint оцінка (1 байт для звичайних оцінок, але й будь-яке int)
+ *   таблиця рядків: рядки (varint довжина + UTF-8) один за одним
+ *   блок зміщень рядків: для кожного рядка 8 байт - абсолютне зміщення в файлі
+ *   блок індексу: для кожного учня (4 байти id, 8 байт зміщення запису), відсортовано за id
+ *   футер (32 байти): зміщення блоку рядків, зміщення індексу, кількість учнів,
+ *     кількість рядків, посилання на назву школи, magic "SIDX"
+ * Імена та назви дисциплін зберігаються як номери в таблиці рядків.
+ * Знімок пишеться за один прохід: кожен учень читається один раз під власним монітором,
+ * тож запис не розходиться з таблицею рядків, навіть якщо школу змінюють паралельно.
+ * Блоки індексу дозволяють MappedSnapshotReader читати окремих учнів без завантаження файлу.
+ */
+class BinarySnapshotFormat {
+    static final byte[] MAGIC = {'S', 'C', 'H', 'L'};
+    static final byte[] FOOTER_MAGIC = {'S', 'I', 'D', 'X'};
+    static final int VERSION = 1;
+    static final int FOOTER_SIZE = 32;
+    static final int INDEX_ENTRY_SIZE = 12;
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private BinarySnapshotFormat() {
+    }
+
+    static void write(String schoolName, List<Student> students, Path path) throws IOException {
+        StringTable table = new StringTable(new HashMap<>());
+        int schoolNameRef = table.idOf(schoolName != null ? schoolName : "");
+        // id у DisciplineCatalog -> номер у таблиці рядків (+1, щоб 0 означав "ще немає")
+        int[] disciplineStringIds = new int[DisciplineCatalog.size() + 1];
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChannelOutput out = new ChannelOutput(channel);
+            out.bytes(MAGIC, 0, MAGIC.length);
+            out.ensure(1).put((byte) VERSION);
+
+            long[] recordOffsets = new long[students.size()];
+            // (id << 32 | порядковий номер) - сортування long[] дає індекс за id без боксингу
+            long[] idOrder = new long[students.size()];
+            ByteBuffer record = ByteBuffer.allocate(64);
+            int ordinal = 0;
+            for (Student student : students) {
+                record.clear();
+                int id;
+                synchronized (student) {
+                    id = student.getId();
+                    record = putVarint(record, id);
+                    record = putVarint(record, table.idOf(student.getFirstName()));
+                    record = putVarint(record, table.idOf(student.getLastName()));
+                    int disciplineCount = student.disciplineCount();
+                    record = putVarint(record, disciplineCount);
+                    for (int i = 0; i < disciplineCount; i++) {
+                        int nameId = student.disciplineNameIdAt(i);
+                        if (nameId >= disciplineStringIds.length) {
+                            disciplineStringIds = Arrays.copyOf(disciplineStringIds, Math.max(nameId + 1, disciplineStringIds.length * 2));
+                        }
+                        if (disciplineStringIds[nameId] == 0) {
+                            disciplineStringIds[nameId] = table.idOf(DisciplineCatalog.nameOf(nameId)) + 1;
+                        }
+                        record = putVarint(record, disciplineStringIds[nameId] - 1);
+                        record = putSignedVarint(record, student.disciplineGradeAt(i));
+                    }
+                }
+                recordOffsets[ordinal] = out.position();
+                idOrder[ordinal] = ((long) id << 32) | ordinal;
+                ordinal++;
+                out.varint(record.position());
+                out.bytes(record.array(), 0, record.position());
+            }
+
+            long[] stringOffsets = new long[table.size];
+            for (int i = 0; i < table.size; i++) {
+                stringOffsets[i] = out.position();
+                byte[] utf8 = table.strings[i].getBytes(StandardCharsets.UTF_8);
+                out.varint(utf8.length);
+                out.bytes(utf8, 0, utf8.length);
+            }
+
+            long stringOffsetsPosition = out.position();
+            for (long offset : stringOffsets) {
+                out.ensure(8).putLong(offset);
+            }
+            long indexPosition = out.position();
+            Arrays.sort(idOrder);
+            for (long entry : idOrder) {
+                out.ensure(INDEX_ENTRY_SIZE).putInt((int) (entry >>> 32)).putLong(recordOffsets[(int) entry]);
+            }
+            out.ensure(FOOTER_SIZE)
+                    .putLong(stringOffsetsPosition)
+                    .putLong(indexPosition)
+                    .putInt(students.size())
+                    .putInt(table.size)
+                    .putInt(schoolNameRef)
+                    .put(FOOTER_MAGIC);
+            out.flush();
+        }
+    }
+
+    static School read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readHeader(new ChannelInput(channel), path);
+            return readTrailingStrings(channel, path);
+        }
+    }
+
+    // Таблиця рядків - після записів, її початок і кількості беруться з футера
+    private static School readTrailingStrings(FileChannel channel, Path path) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < MAGIC.length + 1 + FOOTER_SIZE) {
+            throw new IOException("Snapshot footer is missing: " + path);
+        }
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+        readFully(channel, footer, fileSize - FOOTER_SIZE);
+        long stringOffsetsPosition = footer.getLong();
+        footer.getLong(); // Зміщення індексу - для послідовного читання не потрібне
+        int studentCount = footer.getInt();
+        int stringCount = footer.getInt();
+        int schoolNameRef = footer.getInt();
+        for (byte b : FOOTER_MAGIC) {
+            if (footer.get() != b) {
+                throw new IOException("Snapshot footer is corrupted: " + path);
+            }
+        }
+        if (stringCount <= 0 || schoolNameRef < 0 || schoolNameRef >= stringCount) {
+            throw new IOException("Snapshot footer is corrupted: " + path);
+        }
+
+        ByteBuffer firstOffset = ByteBuffer.allocate(8);
+        readFully(channel, firstOffset, stringOffsetsPosition);
+        channel.position(firstOffset.getLong());
+        ChannelInput in = new ChannelInput(channel);
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = in.string();
+        }
+
+        channel.position(MAGIC.length + 1);
+        return readStudents(new ChannelInput(channel), strings, strings[schoolNameRef], studentCount);
+    }
+
+    private static School readStudents(ChannelInput in, String[] strings, String schoolName, int studentCount)
+            throws IOException {
+        // Номер у таблиці рядків -> id у DisciplineCatalog, заповнюється за потреби
+        int[] disciplineIds = new int[strings.length];
+        Arrays.fill(disciplineIds, -1);
+
+        School school = new School();
+        if (!schoolName.isEmpty()) {
+            school.setName(schoolName);
+        }
+        List<Student> students = new ArrayList<>(studentCount);
+        for (int s = 0; s < studentCount; s++) {
+            in.varint(); // Довжина запису - для пропуску без розбору, тут не потрібна
+            Student student = Student.restore(in.varint(), strings[in.varint()], strings[in.varint()]);
+            int disciplineCount = in.varint();
+            for (int d = 0; d < disciplineCount; d++) {
+                int stringId = in.varint();
+                if (disciplineIds[stringId] < 0) {
+                    disciplineIds[stringId] = DisciplineCatalog.intern(strings[stringId]);
+                }
+                student.upsertDiscipline(disciplineIds[stringId], in.signedVarint());
+            }
+            students.add(student);
+        }
+        school.addStudents(students).reportRejected();
+        return school;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of snapshot file.");
+            }
+        }
+        buffer.flip();
+    }
+
+    static void readHeader(ChannelInput in, Path path) throws IOException {
+        ByteBuffer header = in.ensure(MAGIC.length + 1);
+        for (byte b : MAGIC) {
+            if (header.get() != b) {
+                throw new IOException("Not a school snapshot file: " + path);
+            }
+        }
+        int version = header.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + path);
+        }
+    }
+
+    static ByteBuffer putVarint(ByteBuffer buffer, int value) {
+        buffer = grow(buffer, 5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        return buffer;
+    }
+
+    static int getVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in snapshot.");
+    }
+
+    // Zigzag: невеликі від'ємні значення теж займають один-два байти
+    static ByteBuffer putSignedVarint(ByteBuffer buffer, int value) {
+        return putVarint(buffer, (value << 1) ^ (value >> 31));
+    }
+
+    static int getSignedVarint(ByteBuffer buffer) throws IOException {
+        return unzigzag(getVarint(buffer));
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    private static class StringTable {
+        private final Map<String, Integer> ids;
+        private String[] strings = new String[256];
+        private int size;
+
+        StringTable(Map<String, Integer> ids) {
+            this.ids = ids;
+        }
+
+        int idOf(String value) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            if (size == strings.length) {
+                strings = Arrays.copyOf(strings, size * 2);
+            }
+            strings[size] = value;
+            ids.put(value, size);
+            return size++;
+        }
+    }
+
+    // Буферизований запис у канал
+    static class ChannelOutput {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long flushed;
+
+        ChannelOutput(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void varint(int value) throws IOException {
+            ensure(5);
+            putVarint(buffer, value);
+        }
+
+        void bytes(byte[] data, int offset, int length) throws IOException {
+            while (length > 0) {
+                int chunk = Math.min(length, ensure(1).remaining());
+                buffer.put(data, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        // Абсолютна позиція наступного байта у файлі
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            flushed += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // Буферизоване читання з каналу
+    static class ChannelInput {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private byte[] scratch = new byte[64];
+
+        ChannelInput(FileChannel channel) {
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                buffer.compact();
+                while (buffer.position() < bytes) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IOException("Unexpected end of snapshot file.");
+                    }
+                }
+                buffer.flip();
+            }
+            return buffer;
+        }
+
+        int varint() throws IOException {
+            if (buffer.remaining() < 5) {
+                // Ближче до кінця файлу varint може бути коротшим за 5 байт
+                buffer.compact();
+                while (buffer.position() < 5 && channel.read(buffer) > 0) {
+                    // дочитуємо, скільки є
+                }
+                buffer.flip();
+            }
+            return getVarint(buffer);
+        }
+
+        int signedVarint() throws IOException {
+            return unzigzag(varint());
+        }
+
+        String string() throws IOException {
+            int length = varint();
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            int offset = 0;
+            while (offset < length) {
+                int chunk = Math.min(length - offset, ensure(1).remaining());
+                buffer.get(scratch, offset, chunk);
+                offset += chunk;
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Результат імпорту кількох файлів: об'єднана школа, успішні файли, помилки та пропущені дублікати id
+public final class BulkImportResult {
+    private final School school;
+    private final List<Path> importedFiles;
+    private final Map<Path, String> failedFiles;
+    private final Map<Path, List<Integer>> skippedDuplicateIds;
+
+    BulkImportResult(School school, List<Path> importedFiles, Map<Path, String> failedFiles,
+                     Map<Path, List<Integer>> skippedDuplicateIds) {
+        this.school = school;
+        this.importedFiles = Collections.unmodifiableList(importedFiles);
+        this.failedFiles = Collections.unmodifiableMap(failedFiles);
+        this.skippedDuplicateIds = Collections.unmodifiableMap(skippedDuplicateIds);
+    }
+
+    public School getSchool() {
+        return school;
+    }
+
+    public List<Path> getImportedFiles() {
+        return importedFiles;
+    }
+
+    // Файл -> повідомлення про помилку; такі файли не потрапили до школи зовсім
+    public Map<Path, String> getFailedFiles() {
+        return failedFiles;
+    }
+
+    // Файл -> id учнів, які вже були в раніших файлах (за порядком імен файлів) і тому пропущені
+    public Map<Path, List<Integer>> getSkippedDuplicateIds() {
+        return skippedDuplicateIds;
+    }
+
+    public boolean hasErrors() {
+        return !failedFiles.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        int duplicates = skippedDuplicateIds.values().stream().mapToInt(List::size).sum();
+        return "BulkImportResult{" +
+                "students=" + school.getStudents().size() +
+                ", importedFiles=" + importedFiles.size() +
+                ", failedFiles=" + failedFiles.size() +
+                ", skippedDuplicates=" + duplicates +
+                '}';
+    }
+}
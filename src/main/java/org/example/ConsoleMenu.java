@@ -1,9 +1,12 @@
 package org.example;
 
 import java.io.IOException;
-import java.util.Comparator;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.InputMismatchException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
 
@@ -11,21 +14,66 @@ public class ConsoleMenu {
 
     private School school;
     private final DataService dataService;
+    // Журнал змін: при збереженні дописуються лише зміни, а не вся школа
+    private MutationJournal journal;
+    // Фонове автозбереження: скидає журнал на диск, а якщо журнал недоступний - пише весь файл
+    private AutosaveService autosave;
     private final Scanner scanner;
-    // Файл для збереження/завантаження
+    // Файл для збереження/завантаження; формат визначається розширенням (.json або .bin)
     private static final String DATA_FILE = "school_data.json";
+    private static final int SEARCH_LIMIT = 20;
 
     public ConsoleMenu() {
         this.dataService = new DataService();
         this.scanner = new Scanner(System.in);
         // Спробуємо завантажити дані при старті
+        this.journal = new MutationJournal(dataService, DATA_FILE);
         try {
-            this.school = dataService.importSchoolFromJson(DATA_FILE);
+            this.school = journal.recover();
             System.out.println("Завантажено дані для школи: " + school.getName());
+            startAutosave();
         } catch (IOException e) {
             System.err.println("Не вдалося завантажити дані з " + DATA_FILE + ". Створюється нова школа. Помилка: " + e.getMessage());
             // Створюємо нову школу, якщо завантаження не вдалося
             this.school = new School("Школа без назви");
+            attachJournal();
+        }
+    }
+
+    private void attachJournal() {
+        // Незбережені зміни попередньої школи скидаються до перемикання журналу
+        closeAutosave();
+        try {
+            journal.attach(school);
+        } catch (IOException e) {
+            System.err.println("Журнал змін недоступний, дані зберігатимуться у файл у фоні. Помилка: " + e.getMessage());
+            journal = null;
+        }
+        startAutosave();
+    }
+
+    // Перемикає автозбереження на поточну школу; незбережені зміни попередньої школи дописуються.
+    // Сервіс підписується на школу після журналу, тож кожна зміна вже в журналі, коли він її рахує
+    private void startAutosave() {
+        closeAutosave();
+        autosave = journal != null
+                ? new AutosaveService(school, journal)
+                : new AutosaveService(school, dataService, DATA_FILE);
+    }
+
+    // true, якщо останні зміни збережено
+    private boolean closeAutosave() {
+        if (autosave == null) {
+            return false;
+        }
+        try {
+            autosave.close();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Помилка автозбереження у файл " + DATA_FILE + ": " + e.getMessage());
+            return false;
+        } finally {
+            autosave = null;
         }
     }
 
@@ -69,6 +117,21 @@ public class ConsoleMenu {
                 case 11:
                     importData(); // Дозволимо імпортувати вручну теж
                     break;
+                case 12:
+                    findStudentInArchive();
+                    break;
+                case 13:
+                    showDisciplineStatistics();
+                    break;
+                case 14:
+                    showStudentRanking();
+                    break;
+                case 15:
+                    searchStudentsByName();
+                    break;
+                case 16:
+                    showMetrics();
+                    break;
                 case 0:
                     saveDataOnExit(); // Зберігаємо дані перед виходом
                     System.out.println("Завершення роботи програми...");
@@ -94,8 +157,13 @@ public class ConsoleMenu {
         System.out.println("7. Видалити дисципліну учня");
         System.out.println("8. Обчислити середній бал учня");
         System.out.println("9. Обчислити середній бал школи");
-        System.out.println("10. Експортувати дані в JSON (з опціями сортування)");
-        System.out.println("11. Імпортувати дані з JSON");
+        System.out.println("10. Експортувати дані в JSON або .bin (з опціями сортування)");
+        System.out.println("11. Імпортувати дані з JSON або .bin");
+        System.out.println("12. Знайти учня за ID в архіві .bin (без завантаження файлу)");
+        System.out.println("13. Статистика по дисциплінах");
+        System.out.println("14. Рейтинг учнів (найкращі або найгірші)");
+        System.out.println("15. Пошук учнів за іменем або прізвищем");
+        System.out.println("16. Показати метрики продуктивності");
         System.out.println("0. Зберегти та вийти");
         System.out.println("------------------------------------");
     }
@@ -218,7 +286,7 @@ public class ConsoleMenu {
 
             try {
                 Student updatedStudent = new Student(existingStudent.getId(), newFirstName, newLastName);
-                updatedStudent.setDisciplines(existingStudent.getDisciplines());
+                updatedStudent.setDisciplines(existingStudent.disciplinesView());
 
                 if (school.updateStudent(updatedStudent)) {
                     System.out.println("Інформацію про учня успішно оновлено.");
@@ -273,11 +341,11 @@ public class ConsoleMenu {
 
         if (studentOpt.isPresent()) {
             Student student = studentOpt.get();
-            if (student.getDisciplines().isEmpty()) {
+            if (student.disciplineCount() == 0) {
                 System.out.println("Учень " + student.getFirstName() + " не має дисциплін для видалення.");
                 return;
             }
-            System.out.println("Дисципліни для " + student.getFirstName() + ": " + student.getDisciplines());
+            System.out.println("Дисципліни для " + student.getFirstName() + ": " + student.disciplinesView());
             String disciplineName = readStringInput("Введіть назву дисципліни для видалення: ");
 
             if (student.removeDiscipline(disciplineName)) {
@@ -312,9 +380,70 @@ public class ConsoleMenu {
         System.out.printf("Загальний середній бал для школи '%s' становить: %.2f%n", school.getName(), avg);
     }
 
+    private void showMetrics() {
+        System.out.println("--- Метрики операцій (також доступні через JMX: " + SchoolMetrics.OBJECT_NAME + ") ---");
+        System.out.print(SchoolMetrics.instance().dump());
+    }
+
+    private void showDisciplineStatistics() {
+        System.out.println("--- Статистика по дисциплінах ---");
+        Map<String, DisciplineStatistics> report = school.calculateDisciplineStatistics(true);
+        if (report.isEmpty()) {
+            System.out.println("У школі ще немає оцінок.");
+            return;
+        }
+        for (DisciplineStatistics statistics : report.values()) {
+            System.out.printf("%s: оцінок %d, середнє %.2f, мін %d, макс %d, медіана %d, 90-й перцентиль %d%n",
+                    statistics.getName(), statistics.getCount(), statistics.getMean(), statistics.getMin(),
+                    statistics.getMax(), statistics.getMedian(), statistics.percentile(90));
+            System.out.println("  Гістограма 1-12: " + Arrays.toString(statistics.getHistogram()));
+        }
+    }
+
+    private void searchStudentsByName() {
+        System.out.println("--- Пошук учнів за іменем ---");
+        String query = readStringInput("Введіть ім'я, прізвище або їхній початок: ");
+        List<Student> found = school.searchStudentsByName(query, SEARCH_LIMIT);
+        if (found.isEmpty()) {
+            found = school.searchStudentsByNameFuzzy(query, query.trim().length() > 5 ? 2 : 1, SEARCH_LIMIT);
+            if (!found.isEmpty()) {
+                System.out.println("Точних збігів немає. Можливо, ви мали на увазі:");
+            }
+        }
+        if (found.isEmpty()) {
+            System.out.println("Учнів не знайдено.");
+            return;
+        }
+        for (Student student : found) {
+            System.out.println(student);
+        }
+    }
+
+    private void showStudentRanking() {
+        System.out.println("--- Рейтинг учнів ---");
+        int k = readIntInput("Скільки учнів показати: ");
+        if (k <= 0) {
+            System.out.println("Кількість має бути додатною.");
+            return;
+        }
+        boolean highest = readIntInput("1 - найкращі, 2 - найгірші: ") != 2;
+        System.out.print("Назва дисципліни (порожньо - за середнім балом): ");
+        String disciplineName = scanner.nextLine().trim();
+        List<Student> ranking = school.rankStudents(disciplineName.isEmpty() ? null : disciplineName, k, highest, true);
+        if (ranking.isEmpty()) {
+            System.out.println("Немає учнів з оцінками для рейтингу.");
+            return;
+        }
+        int place = 1;
+        for (Student student : ranking) {
+            System.out.printf("%d. %s %s (ID %d), середній бал %.2f%n", place++, student.getFirstName(),
+                    student.getLastName(), student.getId(), student.calculateAverageGrade());
+        }
+    }
+
     private void exportData() {
         System.out.println("--- Експорт даних ---");
-        Comparator<Student> sorter = null;
+        StudentOrder order = null;
 
         System.out.println("Сортувати учнів перед експортом?");
         System.out.println("1. Без сортування");
@@ -325,16 +454,15 @@ public class ConsoleMenu {
 
         switch (sortChoice) {
             case 2:
-                sorter = Comparator.comparingInt(Student::getId);
+                order = StudentOrder.BY_ID;
                 System.out.println("Сортування за ID.");
                 break;
             case 3:
-                sorter = Comparator.comparing(Student::getLastName, String.CASE_INSENSITIVE_ORDER)
-                        .thenComparing(Student::getFirstName, String.CASE_INSENSITIVE_ORDER);
+                order = StudentOrder.BY_NAME;
                 System.out.println("Сортування за прізвищем.");
                 break;
             case 4:
-                sorter = Comparator.comparingDouble(Student::calculateAverageGrade).reversed();
+                order = StudentOrder.BY_AVERAGE_DESC;
                 System.out.println("Сортування за середнім балом (за спаданням).");
                 break;
             case 1:
@@ -347,12 +475,18 @@ public class ConsoleMenu {
         String filenameInput = scanner.nextLine();
         String filename = filenameInput.trim().isEmpty() ? DATA_FILE : filenameInput.trim();
 
-        if (!filename.toLowerCase().endsWith(".json")) {
+        if (!filename.toLowerCase().endsWith(".json") && !filename.toLowerCase().endsWith(DataFormat.BINARY.getExtension())) {
             filename += ".json";
         }
 
         try {
-            dataService.exportSchoolToJson(school, filename, sorter);
+            if (journal != null && filename.equals(DATA_FILE)) {
+                // Основний файл: повний знімок і очищення журналу
+                journal.checkpointSorted(order);
+                System.out.println("School data successfully exported to " + filename);
+            } else {
+                dataService.exportSchoolSorted(school, filename, order);
+            }
         } catch (IOException e) {
             System.err.println("Помилка експорту даних у файл " + filename + ": " + e.getMessage());
         } catch (IllegalArgumentException e) {
@@ -366,16 +500,33 @@ public class ConsoleMenu {
         String confirmation = readStringInput("Ви впевнені, що хочете імпортувати? (так/ні): ");
 
         if (confirmation.equalsIgnoreCase("так") || confirmation.equalsIgnoreCase("yes")) {
-            String filenamePrompt = "Введіть ім'я файлу для імпорту (за замовчуванням: " + DATA_FILE + "): ";
+            String filenamePrompt = "Введіть ім'я файлу або каталогу для імпорту (за замовчуванням: " + DATA_FILE + "): ";
             String filenameInput = scanner.nextLine();
             String filename = filenameInput.trim().isEmpty() ? DATA_FILE : filenameInput.trim();
+            boolean directory = Files.isDirectory(Paths.get(filename));
 
-            if (!filename.toLowerCase().endsWith(".json")) {
+            if (!directory && !filename.toLowerCase().endsWith(".json") && !filename.toLowerCase().endsWith(DataFormat.BINARY.getExtension())) {
                 filename += ".json";
             }
 
             try {
-                this.school = dataService.importSchoolFromJson(filename);
+                if (directory) {
+                    // Усі файли каталогу зливаються в одну школу; помилкові файли пропускаються
+                    BulkImportResult result = dataService.importSchoolsFromDirectory(filename);
+                    result.getFailedFiles().forEach((file, error) ->
+                            System.err.println("Не вдалося імпортувати " + file + ": " + error));
+                    result.getSkippedDuplicateIds().forEach((file, ids) ->
+                            System.out.println("Пропущено дублікати ID з " + file + ": " + ids));
+                    this.school = result.getSchool();
+                } else {
+                    this.school = dataService.importSchool(filename);
+                }
+                if (journal != null) {
+                    attachJournal();
+                } else {
+                    startAutosave();
+                    autosave.markChanged(); // Імпортована школа тепер поточна - зберегти її
+                }
                 System.out.println("Дані імпортовано. Поточна школа: " + school.getName());
             } catch (IOException e) {
                 System.err.println("Помилка імпорту даних з файлу " + filename + ": " + e.getMessage());
@@ -388,10 +539,36 @@ public class ConsoleMenu {
         }
     }
 
+    private void findStudentInArchive() {
+        System.out.println("--- Пошук учня в архіві ---");
+        String filename = readStringInput("Введіть ім'я файлу архіву (.bin): ");
+        int id = readIntInput("Введіть ID учня для пошуку: ");
+        try (MappedSnapshotReader reader = new MappedSnapshotReader(Paths.get(filename))) {
+            Optional<Student> studentOpt = reader.findStudentById(id);
+            if (studentOpt.isPresent()) {
+                System.out.println("Учня знайдено в архіві школи '" + reader.schoolName() + "': " + studentOpt.get());
+            } else {
+                System.out.println("Учня з ID " + id + " не знайдено в архіві.");
+            }
+        } catch (IOException e) {
+            System.err.println("Помилка читання архіву " + filename + ": " + e.getMessage());
+        }
+    }
+
     private void saveDataOnExit() {
         System.out.println("--- Збереження даних перед виходом ---");
         try {
-            dataService.exportSchoolToJson(school, DATA_FILE, null);
+            // Автозбереження дописує незбережені зміни і зупиняється раніше за журнал, який воно скидає;
+            // якщо запис файлу не вдався, школа експортується напряму
+            boolean autosaved = closeAutosave();
+            if (journal != null) {
+                journal.close();
+                System.out.println("Зміни збережено в журналі " + DATA_FILE + ".journal");
+            } else if (autosaved) {
+                System.out.println("Дані збережено у " + DATA_FILE);
+            } else {
+                dataService.exportSchool(school, DATA_FILE, null);
+            }
         } catch (IOException e) {
             System.err.println("Помилка збереження даних у файл " + DATA_FILE + ": " + e.getMessage());
         } catch (IllegalArgumentException e) {
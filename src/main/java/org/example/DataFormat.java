@@ -0,0 +1,25 @@
+package org.example;
+
+// Формат файлу даних школи
+public enum DataFormat {
+    JSON(".json"),
+    BINARY(".bin");
+
+    private final String extension;
+
+    DataFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // Формат за розширенням файлу; за замовчуванням - JSON
+    public static DataFormat fromFileName(String fileName) {
+        if (fileName != null && fileName.toLowerCase().endsWith(BINARY.extension)) {
+            return BINARY;
+        }
+        return JSON;
+    }
+}
@@ -1,16 +1,32 @@
 package org.example;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class DataService {
 
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    // Скільки учнів потоковий імпорт накопичує перед додаванням до школи
+    private static final int STREAM_BATCH_SIZE = 1024;
+
     private final ObjectMapper objectMapper;
 
     public DataService() {
@@ -19,31 +35,54 @@ public class DataService {
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
     }
 
+    // Спільний ObjectMapper для інших компонентів пакета (HTTP API): налаштований один раз і потокобезпечний
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
     public void exportSchoolToJson(School school, String filePath, Comparator<Student> sorter) throws IOException {
+        exportSchoolToJson(school, filePath, sorter, true);
+    }
+
+    // Потоковий експорт: учні пишуться по одному через JsonGenerator, без копії School
+    public void exportSchoolToJson(School school, String filePath, Comparator<Student> sorter, boolean prettyPrint) throws IOException {
         if (school == null || filePath == null || filePath.trim().isEmpty()) {
             throw new IllegalArgumentException("School object and file path cannot be null or empty.");
         }
 
-        School schoolToExport;
-        if (sorter != null) {
-            // Створюємо копію списку учнів, сортуємо її і створюємо тимчасовий об'єкт школи для експорту
-            List<Student> sortedStudents = new ArrayList<>(school.getStudents());
-            sortedStudents.sort(sorter);
+        writeJson(school.getName(), sortedStudents(school, sorter), filePath, prettyPrint);
+        System.out.println("School data successfully exported to " + filePath);
+    }
 
-            // Створюємо новий об'єкт School тільки для експорту з відсортованим списком
-            schoolToExport = new School(school.getName());
-            schoolToExport.setStudents(sortedStudents);
-        } else {
-            schoolToExport = school;
+    private void writeJson(String schoolName, List<Student> studentsToExport, String filePath, boolean prettyPrint) throws IOException {
+        long start = SchoolMetrics.start();
+        File file = prepareFile(filePath);
+        ObjectWriter studentWriter = objectMapper.writerFor(Student.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (!prettyPrint) {
+            studentWriter = studentWriter.without(SerializationFeature.INDENT_OUTPUT);
         }
 
-        File file = new File(filePath);
-        if (file.getParentFile() != null) {
-            file.getParentFile().mkdirs();
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (prettyPrint) {
+                generator.useDefaultPrettyPrinter();
+            }
+            generator.writeStartObject();
+            generator.writeStringField("name", schoolName);
+            generator.writeArrayFieldStart("students");
+            for (Student student : studentsToExport) {
+                // Учень серіалізується цілком під своїм монітором, щоб не потрапити у файл напівзміненим
+                synchronized (student) {
+                    studentWriter.writeValue(generator, student);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
         }
-
-        objectMapper.writeValue(file, schoolToExport);
-        System.out.println("School data successfully exported to " + filePath);
+        SchoolMetrics.recordIo(SchoolMetrics.Operation.JSON_EXPORT, start, file.length(), studentsToExport.size());
     }
 
     public School importSchoolFromJson(String filePath) throws IOException {
@@ -60,8 +99,232 @@ public class DataService {
             return new School("Default School Name");
         }
 
+        School school = readJson(file);
+        System.out.println("School data successfully imported from " + filePath);
+        return school;
+    }
+
+    private School readJson(File file) throws IOException {
+        long start = SchoolMetrics.start();
         School school = objectMapper.readValue(file, School.class);
+        SchoolMetrics.recordIo(SchoolMetrics.Operation.JSON_IMPORT, start, file.length(), school.studentCount());
+        return school;
+    }
+
+    // Потокове завантаження: файл не читається цілком, а учні додаються до школи пакетами,
+    // тож крім самої школи в пам'яті не більше одного пакета
+    public School importSchoolFromJsonStreaming(String filePath) throws IOException {
+        School school = new School();
+        List<Student> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        String name = streamStudentsFromJson(filePath, student -> {
+            batch.add(student);
+            if (batch.size() == STREAM_BATCH_SIZE) {
+                addBatch(school, batch);
+            }
+        });
+        addBatch(school, batch);
+        school.setName(name != null ? name : "Default School Name");
+        return school;
+    }
+
+    private static void addBatch(School school, List<Student> batch) {
+        if (!batch.isEmpty()) {
+            school.addStudents(batch).reportRejected();
+            batch.clear();
+        }
+    }
+
+    // Передає кожного учня з масиву "students" у consumer; повертає назву школи (або null)
+    public String streamStudentsFromJson(String filePath, Consumer<Student> consumer) throws IOException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty.");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Student consumer cannot be null.");
+        }
+        File file = new File(filePath);
+        if (!file.exists() || file.length() == 0) {
+            System.out.println("Import file not found or empty: " + filePath + ". Nothing to import.");
+            return null;
+        }
+
+        long start = SchoolMetrics.start();
+        long streamed = 0;
+        String schoolName = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected school object at the root of " + filePath);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("name".equals(field)) {
+                    schoolName = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                } else if ("students".equals(field) && value == JsonToken.START_ARRAY) {
+                    JsonToken element;
+                    while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (element == null) {
+                            throw new JsonParseException(parser, "Unexpected end of students array in " + filePath);
+                        }
+                        if (element != JsonToken.START_OBJECT) {
+                            // null чи інше значення замість учня пропускається, решта масиву читається далі
+                            System.err.println("Skipping non-object student entry (" + element + ") in " + filePath);
+                            parser.skipChildren();
+                            continue;
+                        }
+                        consumer.accept(objectMapper.readValue(parser, Student.class));
+                        streamed++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        SchoolMetrics.recordIo(SchoolMetrics.Operation.JSON_IMPORT, start, file.length(), streamed);
+        System.out.println("School data successfully streamed from " + filePath);
+        return schoolName;
+    }
+
+    // Імпорт усіх .json і .bin файлів каталогу в одну школу (див. importSchoolsFromDirectory з glob)
+    public BulkImportResult importSchoolsFromDirectory(String directory) throws IOException {
+        return importSchoolsFromDirectory(directory, "*.{json,bin}", Runtime.getRuntime().availableProcessors());
+    }
+
+    // Файли за glob розбираються паралельно (до parallelism одночасно) і зливаються в порядку імен файлів;
+    // помилка в одному файлі не зупиняє інші, а потрапляє в результат
+    public BulkImportResult importSchoolsFromDirectory(String directory, String glob, int parallelism) throws IOException {
+        if (directory == null || directory.trim().isEmpty() || glob == null || glob.trim().isEmpty()) {
+            throw new IllegalArgumentException("Directory and file pattern cannot be null or empty.");
+        }
+        BulkImportResult result = new DirectoryImporter(this, parallelism).importDirectory(Paths.get(directory), glob);
+        System.out.println("Imported " + result.getImportedFiles().size() + " files from " + directory
+                + (result.hasErrors() ? ", failed: " + result.getFailedFiles().size() : ""));
+        return result;
+    }
+
+    // Вибір формату за розширенням файлу (.bin - бінарний знімок, інакше JSON)
+    public void exportSchool(School school, String filePath, Comparator<Student> sorter) throws IOException {
+        if (DataFormat.fromFileName(filePath) == DataFormat.BINARY) {
+            exportSchoolToBinary(school, filePath, sorter);
+        } else {
+            exportSchoolToJson(school, filePath, sorter);
+        }
+    }
+
+    // Експорт у порядку StudentOrder: якщо школа підтримує відсортовані індекси, сортування не потрібне
+    public void exportSchoolSorted(School school, String filePath, StudentOrder order) throws IOException {
+        if (school == null || filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("School object and file path cannot be null or empty.");
+        }
+        List<Student> studentsToExport = school.getStudents(order);
+        if (DataFormat.fromFileName(filePath) == DataFormat.BINARY) {
+            writeBinary(school.getName(), studentsToExport, filePath);
+        } else {
+            writeJson(school.getName(), studentsToExport, filePath, true);
+        }
+        System.out.println("School data successfully exported to " + filePath);
+    }
+
+    // Експорт незмінної версії школи (School.snapshot()): учні не блокуються, а файл узгоджений
+    // на момент версії, навіть якщо школу змінюють під час запису
+    public void exportSnapshot(SchoolSnapshot snapshot, String filePath) throws IOException {
+        if (snapshot == null || filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("Snapshot and file path cannot be null or empty.");
+        }
+        if (DataFormat.fromFileName(filePath) == DataFormat.BINARY) {
+            writeBinary(snapshot.name(), snapshot.students(), filePath);
+        } else {
+            writeJson(snapshot.name(), snapshot.students(), filePath, true);
+        }
+        System.out.println("School data successfully exported to " + filePath);
+    }
+
+    // Запис незмінної версії без виводу в консоль для фонових збережень (AutosaveService); формат - за розширенням
+    void writeSnapshot(SchoolSnapshot snapshot, String filePath) throws IOException {
+        writeStudents(snapshot.name(), snapshot.students(), filePath);
+    }
+
+    // Те саме для готового списку учнів (журнал пише відсортовані знімки і результат компакції)
+    void writeStudents(String schoolName, List<Student> students, String filePath) throws IOException {
+        if (DataFormat.fromFileName(filePath) == DataFormat.BINARY) {
+            writeBinary(schoolName, students, filePath);
+        } else {
+            writeJson(schoolName, students, filePath, false);
+        }
+    }
+
+    // Читання без виводу в консоль для фонових задач (компакція журналу); відсутній чи порожній файл -
+    // порожня школа, як і в importSchool
+    School readSchool(String filePath) throws IOException {
+        File file = new File(filePath);
+        if (!file.exists() || file.length() == 0) {
+            return new School("Default School Name");
+        }
+        return DataFormat.fromFileName(filePath) == DataFormat.BINARY ? readBinary(file) : readJson(file);
+    }
+
+    public School importSchool(String filePath) throws IOException {
+        if (DataFormat.fromFileName(filePath) == DataFormat.BINARY) {
+            return importSchoolFromBinary(filePath);
+        }
+        return importSchoolFromJson(filePath);
+    }
+
+    public void exportSchoolToBinary(School school, String filePath, Comparator<Student> sorter) throws IOException {
+        if (school == null || filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("School object and file path cannot be null or empty.");
+        }
+
+        writeBinary(school.getName(), sortedStudents(school, sorter), filePath);
+        System.out.println("School data successfully exported to " + filePath);
+    }
+
+    private void writeBinary(String schoolName, List<Student> studentsToExport, String filePath) throws IOException {
+        long start = SchoolMetrics.start();
+        File file = prepareFile(filePath);
+        BinarySnapshotFormat.write(schoolName, studentsToExport, file.toPath());
+        SchoolMetrics.recordIo(SchoolMetrics.Operation.BINARY_EXPORT, start, file.length(), studentsToExport.size());
+    }
+
+    // Без сортування експорт обходить живий список школи; школу, яку паралельно змінюють інші потоки,
+    // пишуть через exportSnapshot(school.snapshot(), ...)
+    private static List<Student> sortedStudents(School school, Comparator<Student> sorter) {
+        if (sorter == null) {
+            return school.getStudents();
+        }
+        // Єдина копія списку потрібна лише для сортування
+        List<Student> students = new ArrayList<>(school.copyOfStudents());
+        students.sort(sorter);
+        return students;
+    }
+
+    private static File prepareFile(String filePath) {
+        File file = new File(filePath);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        return file;
+    }
+
+    public School importSchoolFromBinary(String filePath) throws IOException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty.");
+        }
+        File file = new File(filePath);
+        if (!file.exists() || file.length() == 0) {
+            System.out.println("Import file not found or empty: " + filePath + ". Creating a new empty school.");
+            return new School("Default School Name");
+        }
+
+        School school = readBinary(file);
         System.out.println("School data successfully imported from " + filePath);
         return school;
     }
+
+    private static School readBinary(File file) throws IOException {
+        long start = SchoolMetrics.start();
+        School school = BinarySnapshotFormat.read(file.toPath());
+        SchoolMetrics.recordIo(SchoolMetrics.Operation.BINARY_IMPORT, start, file.length(), school.studentCount());
+        return school;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+// Детермінований генератор великих шкіл для навантажувального тестування.
+// Однаковий seed і налаштування дають побайтово однаковий файл. Учні пишуться у JSON по одному,
+// тож пам'ять не залежить від розміру школи.
+//   skew - показник Ціпфа для популярності дисциплін (0 - усі однаково часті)
+//   missingGradeRatio - частка дисциплін, з яких учень не має оцінки
+public class DatasetGenerator {
+    private static final String[] DISCIPLINES = {
+            "Математика", "Українська мова", "Англійська мова", "Історія України", "Фізика", "Хімія",
+            "Біологія", "Географія", "Інформатика", "Українська література", "Зарубіжна література",
+            "Всесвітня історія", "Алгебра", "Геометрія", "Фізкультура", "Мистецтво", "Музика",
+            "Трудове навчання", "Правознавство", "Економіка", "Астрономія", "Екологія", "Німецька мова",
+            "Французька мова", "Основи здоров'я", "Захист України", "Етика", "Психологія", "Філософія",
+            "Креслення", "Робототехніка", "Статистика"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Олена", "Іван", "Марія", "Петро", "Анна", "Тарас", "Оксана", "Андрій", "Софія", "Максим",
+            "Дарина", "Богдан", "Ірина", "Олександр", "Наталія", "Дмитро", "Юлія", "Артем", "Катерина", "Назар"
+    };
+    private static final String[] LAST_NAMES = {
+            "Шевченко", "Коваленко", "Бондаренко", "Ткаченко", "Кравченко", "Мельник", "Олійник", "Шевчук",
+            "Поліщук", "Бойко", "Ковальчук", "Лисенко", "Марченко", "Руденко", "Савченко", "Петренко",
+            "Мороз", "Кравчук", "Павленко", "Гончаренко", "Клименко", "Левченко", "Симоненко", "Романенко"
+    };
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final long seed;
+    private String schoolName = "Generated School";
+    private int studentCount = 1000;
+    private int disciplinesPerStudent = 8;
+    private double skew = 1.0;
+    private double missingGradeRatio = 0.1;
+    private boolean prettyPrint;
+
+    public DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public DatasetGenerator schoolName(String schoolName) {
+        if (schoolName == null || schoolName.trim().isEmpty()) {
+            throw new IllegalArgumentException("School name cannot be empty.");
+        }
+        this.schoolName = schoolName;
+        return this;
+    }
+
+    public DatasetGenerator students(int studentCount) {
+        if (studentCount < 0) {
+            throw new IllegalArgumentException("Student count cannot be negative.");
+        }
+        this.studentCount = studentCount;
+        return this;
+    }
+
+    public DatasetGenerator disciplinesPerStudent(int disciplinesPerStudent) {
+        if (disciplinesPerStudent < 0 || disciplinesPerStudent > DISCIPLINES.length) {
+            throw new IllegalArgumentException("Disciplines per student must be between 0 and " + DISCIPLINES.length + ".");
+        }
+        this.disciplinesPerStudent = disciplinesPerStudent;
+        return this;
+    }
+
+    public DatasetGenerator skew(double skew) {
+        if (skew < 0.0 || Double.isNaN(skew)) {
+            throw new IllegalArgumentException("Skew cannot be negative.");
+        }
+        this.skew = skew;
+        return this;
+    }
+
+    public DatasetGenerator missingGradeRatio(double missingGradeRatio) {
+        if (missingGradeRatio < 0.0 || missingGradeRatio > 1.0 || Double.isNaN(missingGradeRatio)) {
+            throw new IllegalArgumentException("Missing grade ratio must be between 0 and 1.");
+        }
+        this.missingGradeRatio = missingGradeRatio;
+        return this;
+    }
+
+    public DatasetGenerator prettyPrint(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+        return this;
+    }
+
+    // Пише школу у форматі DataService.exportSchoolToJson, не створюючи об'єктів Student
+    public void writeJson(Path path) throws IOException {
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+             JsonGenerator json = new JsonFactory().createGenerator(out)) {
+            if (prettyPrint) {
+                json.useDefaultPrettyPrinter();
+            }
+            json.writeStartObject();
+            json.writeStringField("name", schoolName);
+            json.writeArrayFieldStart("students");
+            generate(new RecordSink() {
+                @Override
+                public void student(int id, String firstName, String lastName) throws IOException {
+                    json.writeStartObject();
+                    json.writeNumberField("id", id);
+                    json.writeStringField("firstName", firstName);
+                    json.writeStringField("lastName", lastName);
+                    json.writeArrayFieldStart("disciplines");
+                }
+
+                @Override
+                public void discipline(String name, int grade) throws IOException {
+                    json.writeStartObject();
+                    json.writeStringField("name", name);
+                    json.writeNumberField("grade", grade);
+                    json.writeEndObject();
+                }
+
+                @Override
+                public void endStudent() throws IOException {
+                    json.writeEndArray();
+                    json.writeEndObject();
+                }
+            });
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    // Ті самі дані як об'єкти Student, по одному (наприклад, для School.addStudents або бенчмарків)
+    public void forEachStudent(Consumer<Student> consumer) {
+        try {
+            generate(new RecordSink() {
+                private Student current;
+
+                @Override
+                public void student(int id, String firstName, String lastName) {
+                    current = new Student(id, firstName, lastName);
+                }
+
+                @Override
+                public void discipline(String name, int grade) {
+                    current.addOrUpdateDiscipline(new Discipline(name, grade));
+                }
+
+                @Override
+                public void endStudent() {
+                    consumer.accept(current);
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory generation cannot fail with I/O.", e);
+        }
+    }
+
+    public School generateSchool() {
+        School school = new School(schoolName);
+        List<Student> students = new ArrayList<>(studentCount);
+        forEachStudent(students::add);
+        school.addStudents(students);
+        return school;
+    }
+
+    private void generate(RecordSink sink) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] weights = new double[DISCIPLINES.length];
+        double[] difficulty = new double[DISCIPLINES.length];
+        for (int d = 0; d < DISCIPLINES.length; d++) {
+            weights[d] = 1.0 / Math.pow(d + 1, skew);
+            difficulty[d] = random.nextDouble(-1.0, 1.0); // Складніші дисципліни мають нижчі оцінки
+        }
+        double[] keys = new double[DISCIPLINES.length];
+        Integer[] order = new Integer[DISCIPLINES.length];
+
+        for (int id = 1; id <= studentCount; id++) {
+            sink.student(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            double ability = 8.0 + 1.5 * gaussian(random);
+            // Вибір без повторень з вагами (Efraimidis-Spirakis): k найбільших u^(1/w)
+            for (int d = 0; d < DISCIPLINES.length; d++) {
+                keys[d] = Math.pow(random.nextDouble(), 1.0 / weights[d]);
+                order[d] = d;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(keys[b], keys[a]));
+            for (int i = 0; i < disciplinesPerStudent; i++) {
+                int d = order[i];
+                if (random.nextDouble() < missingGradeRatio) {
+                    continue;
+                }
+                long grade = Math.round(ability - difficulty[d] + 1.5 * gaussian(random));
+                sink.discipline(DISCIPLINES[d], (int) Math.max(1, Math.min(12, grade)));
+            }
+            sink.endStudent();
+        }
+    }
+
+    // Нормальний розподіл (полярний метод Марсальї); SplittableRandom не має nextGaussian у Java 11
+    private static double gaussian(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = random.nextDouble(-1.0, 1.0);
+            v = random.nextDouble(-1.0, 1.0);
+            s = u * u + v * v;
+        } while (s >= 1.0 || s == 0.0);
+        return u * Math.sqrt(-2.0 * Math.log(s) / s);
+    }
+
+    private interface RecordSink {
+        void student(int id, String firstName, String lastName) throws IOException;
+
+        void discipline(String name, int grade) throws IOException;
+
+        void endStudent() throws IOException;
+    }
+
+    // java -cp school-management.jar org.example.DatasetGenerator <файл> <кількість учнів> [seed] [skew] [частка пропусків]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DatasetGenerator <output.json> <studentCount> [seed] [skew] [missingGradeRatio]");
+            System.exit(1);
+        }
+        DatasetGenerator generator = new DatasetGenerator(args.length > 2 ? Long.parseLong(args[2]) : 42L)
+                .students(Integer.parseInt(args[1]));
+        if (args.length > 3) {
+            generator.skew(Double.parseDouble(args[3]));
+        }
+        if (args.length > 4) {
+            generator.missingGradeRatio(Double.parseDouble(args[4]));
+        }
+        long start = System.nanoTime();
+        generator.writeJson(Paths.get(args[0]));
+        System.out.printf("Generated %d students into %s in %d ms%n", generator.studentCount, args[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
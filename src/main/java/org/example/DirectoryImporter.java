@@ -0,0 +1,120 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+// Паралельний імпорт файлів каталогу. Файли розбираються одночасно (не більше parallelism за раз),
+// а зливаються в одну школу строго в порядку імен файлів, тож результат не залежить від того,
+// який файл дочитався першим: для дубліката id залишається учень з ранішого файлу.
+class DirectoryImporter {
+    private final DataService dataService;
+    private final int parallelism;
+
+    DirectoryImporter(DataService dataService, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.dataService = dataService;
+        this.parallelism = parallelism;
+    }
+
+    BulkImportResult importDirectory(Path directory, String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+
+        List<Future<ParsedFile>> parsed = new ArrayList<>(files.size());
+        ExecutorService executor = WorkerThreads.newExecutor(parallelism, "school-import-worker");
+        // Віртуальних потоків не бракує, тож одночасне читання обмежує семафор
+        Semaphore permits = new Semaphore(parallelism);
+        try {
+            for (Path file : files) {
+                parsed.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return parse(file);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            return merge(files, parsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ParsedFile parse(Path file) throws IOException {
+        ParsedFile result = new ParsedFile();
+        if (DataFormat.fromFileName(file.toString()) == DataFormat.BINARY) {
+            School school = dataService.importSchoolFromBinary(file.toString());
+            result.schoolName = school.getName();
+            result.students.addAll(school.copyOfStudents());
+            school.setStudents(Collections.emptyList()); // Учні переходять до нової школи без спостерігача тимчасової
+        } else {
+            result.schoolName = dataService.streamStudentsFromJson(file.toString(), result.students::add);
+        }
+        return result;
+    }
+
+    private BulkImportResult merge(List<Path> files, List<Future<ParsedFile>> parsed) throws IOException {
+        List<Path> imported = new ArrayList<>();
+        Map<Path, String> failed = new LinkedHashMap<>();
+        Map<Path, List<Integer>> duplicates = new LinkedHashMap<>();
+        List<Student> students = new ArrayList<>();
+        StudentIndex seen = new StudentIndex();
+        String schoolName = null;
+
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            ParsedFile result;
+            try {
+                result = parsed.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while importing " + file, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                failed.put(file, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+                continue;
+            }
+            imported.add(file);
+            if (schoolName == null) {
+                schoolName = result.schoolName;
+            }
+            for (Student student : result.students) {
+                if (seen.putIfAbsent(student.getId(), student)) {
+                    students.add(student);
+                } else {
+                    duplicates.computeIfAbsent(file, key -> new ArrayList<>()).add(student.getId());
+                }
+            }
+        }
+
+        School school = new School(schoolName != null ? schoolName : "Default School Name");
+        school.setStudents(students);
+        return new BulkImportResult(school, imported, failed, duplicates);
+    }
+
+    private static final class ParsedFile {
+        private String schoolName;
+        private final List<Student> students = new ArrayList<>();
+    }
+}
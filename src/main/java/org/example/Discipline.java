@@ -1,10 +1,10 @@
 package org.example;
 
-import java.util.Objects;
-
 public class Discipline {
-    private String name;
+    private String name; // Канонічний екземпляр з DisciplineCatalog
+    private int nameId = -1; // id назви в DisciplineCatalog (-1 - назву ще не задано)
     private int grade; // Оцінка (від 1 до 12)
+    private boolean readOnly; // Елемент Student.disciplinesView(): спільний для всіх читачів, тому незмінний
 
     // Потрібен для десеріалізації Jackson
     public Discipline() {}
@@ -16,10 +16,24 @@ public class Discipline {
         if (grade < 1 || grade > 12) {
             System.err.println("Оцінка " + grade + " для " + name + " не можлива, повинна бути 1-12.");
         }
-        this.name = name;
+        this.nameId = DisciplineCatalog.intern(name);
+        this.name = DisciplineCatalog.nameOf(nameId);
+        this.grade = grade;
+    }
+
+    // Для відновлення дисципліни зі сховища учня: назва вже в каталозі, оцінка вже перевірена
+    Discipline(int nameId, int grade) {
+        this.nameId = nameId;
+        this.name = DisciplineCatalog.nameOf(nameId);
         this.grade = grade;
     }
 
+    static Discipline readOnly(int nameId, int grade) {
+        Discipline discipline = new Discipline(nameId, grade);
+        discipline.readOnly = true;
+        return discipline;
+    }
+
     // Гетери
     public String getName() {
         return name;
@@ -29,15 +43,23 @@ public class Discipline {
         return grade;
     }
 
+    // Не гетер у розумінні Jackson, тому не потрапляє в JSON
+    int nameId() {
+        return nameId;
+    }
+
     // Сетери
     public void setName(String name) {
+        checkMutable();
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Discipline name cannot be empty.");
         }
-        this.name = name;
+        this.nameId = DisciplineCatalog.intern(name);
+        this.name = DisciplineCatalog.nameOf(nameId);
     }
 
     public void setGrade(int grade) {
+        checkMutable();
         if (grade < 1 || grade > 12) {
             System.err.println("Warning: Grade " + grade + " for " + name + " is outside the typical range (1-12).");
             // throw new IllegalArgumentException("Grade must be between 1 and 12.");
@@ -45,6 +67,28 @@ public class Discipline {
         this.grade = grade;
     }
 
+    private void checkMutable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Discipline " + name + " is read-only; use Student.getDisciplines() for a mutable copy.");
+        }
+    }
+
+    // Ключ для порівняння без урахування регістру; збігається з семантикою equalsIgnoreCase
+    static String normalizeName(String name) {
+        StringBuilder key = null;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if (folded != c && key == null) {
+                key = new StringBuilder(name.length()).append(name, 0, i);
+            }
+            if (key != null) {
+                key.append(folded);
+            }
+        }
+        return key == null ? name : key.toString();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -52,12 +96,12 @@ public class Discipline {
         Discipline that = (Discipline) o;
         // Дві дисципліни рівні, якщо у них однакова назва (в контексті учня)
         // Оцінка може бути різною (наприклад, якщо оновили)
-        return Objects.equals(name, that.name);
+        return nameId == that.nameId;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return Integer.hashCode(nameId);
     }
 
     @Override
@@ -0,0 +1,69 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Глобальний словник назв дисциплін: кожна назва зберігається один раз і має компактний числовий id
+public final class DisciplineCatalog {
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final Object lock = new Object();
+    // Записуються лише під lock; id публікується в ids після запису в масиви
+    private static volatile String[] names = new String[64];
+    private static volatile int[] keyIds = new int[64];
+    private static int size;
+
+    private DisciplineCatalog() {
+    }
+
+    public static int intern(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Discipline name cannot be null.");
+        }
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (lock) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            String normalized = Discipline.normalizeName(name);
+            int keyId = normalized.equals(name) ? size : intern(normalized);
+            int newId = size;
+            if (newId == names.length) {
+                names = Arrays.copyOf(names, newId * 2);
+                keyIds = Arrays.copyOf(keyIds, newId * 2);
+            }
+            names[newId] = name;
+            keyIds[newId] = keyId;
+            size = newId + 1;
+            ids.put(name, newId);
+            return newId;
+        }
+    }
+
+    // id вже відомої назви або -1; на відміну від intern не додає нових назв
+    public static int idOf(String name) {
+        Integer id = name == null ? null : ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    // Канонічний екземпляр назви: однакові назви ділять один String
+    public static String canonical(String name) {
+        return nameOf(intern(name));
+    }
+
+    public static String nameOf(int id) {
+        return names[id];
+    }
+
+    // id нормалізованої (без урахування регістру) форми назви
+    static int keyOf(int id) {
+        return keyIds[id];
+    }
+
+    public static int size() {
+        return ids.size();
+    }
+}
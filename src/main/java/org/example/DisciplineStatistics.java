@@ -0,0 +1,132 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Незмінна статистика однієї дисципліни по всій школі; будується з гістограми оцінок
+public final class DisciplineStatistics {
+    private final String name;
+    // Кількість оцінок для кожного значення byte: індекс = оцінка - Byte.MIN_VALUE
+    private final int[] counts;
+    // Рідкісні оцінки поза діапазоном byte, відсортовані; ті, що менші за Byte.MIN_VALUE, - до split
+    private final int[] outliers;
+    private final int split;
+    private final long count;
+    private final long sum;
+    private final int min;
+    private final int max;
+
+    DisciplineStatistics(String name, int[] counts, int[] outliers) {
+        this.name = name;
+        this.counts = counts;
+        this.outliers = outliers;
+        int below = 0;
+        while (below < outliers.length && outliers[below] < Byte.MIN_VALUE) {
+            below++;
+        }
+        this.split = below;
+        long total = outliers.length;
+        long gradeSum = 0;
+        for (int grade : outliers) {
+            gradeSum += grade;
+        }
+        int lowest = outliers.length > 0 ? outliers[0] : 0;
+        int highest = outliers.length > 0 ? outliers[outliers.length - 1] : 0;
+        boolean seenLow = below > 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            int grade = i + Byte.MIN_VALUE;
+            if (!seenLow) {
+                lowest = grade;
+                seenLow = true;
+            }
+            if (split == outliers.length) {
+                highest = grade;
+            }
+            total += counts[i];
+            gradeSum += (long) grade * counts[i];
+        }
+        this.count = total;
+        this.sum = gradeSum;
+        this.min = lowest;
+        this.max = highest;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    // Кількість оцінок 1..12: елемент i - кількість оцінок i + 1
+    public int[] getHistogram() {
+        return Arrays.copyOfRange(counts, 1 - Byte.MIN_VALUE, 13 - Byte.MIN_VALUE);
+    }
+
+    // Кількість оцінок з довільним значенням, зокрема поза звичним діапазоном
+    public int countOf(int grade) {
+        if (grade == (byte) grade) {
+            return counts[grade - Byte.MIN_VALUE];
+        }
+        int found = 0;
+        for (int outlier : outliers) {
+            if (outlier == grade) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    public int getMedian() {
+        return percentile(50.0);
+    }
+
+    // Точний перцентиль методом найближчого рангу: найменша оцінка, не нижча за p% усіх оцінок
+    public int percentile(double p) {
+        if (p < 0.0 || p > 100.0 || Double.isNaN(p)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        if (rank <= split) {
+            return outliers[(int) rank - 1];
+        }
+        long seen = split;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i + Byte.MIN_VALUE;
+            }
+        }
+        return outliers[(int) (split + rank - seen - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return "DisciplineStatistics{" +
+                "name='" + name + '\'' +
+                ", count=" + count +
+                ", mean=" + String.format("%.2f", getMean()) +
+                ", min=" + min +
+                ", max=" + max +
+                ", median=" + getMedian() +
+                '}';
+    }
+}
@@ -0,0 +1,159 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Збирає гістограми оцінок усіх дисциплін за один прохід по учнях.
+// Дисципліни групуються без урахування регістру (як і пошук у Student), назва - перша зустрінута форма.
+class DisciplineStatisticsCollector {
+    private static final int HISTOGRAM_SIZE = 256;
+    // Менші частини рахуються в поточному потоці: розподіл дрібніших шматків коштує дорожче за сам прохід
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    // Індекс - keyOf(nameId) у DisciplineCatalog
+    private int[][] histograms = new int[16][];
+    private int[] displayNameIds = new int[16];
+    // Оцінки поза діапазоном byte (рідкісні): просто список значень на дисципліну
+    private int[][] outliers = new int[16][];
+    private int[] outlierCounts = new int[16];
+
+    private static final int[] NO_OUTLIERS = new int[0];
+
+    static Map<String, DisciplineStatistics> collect(List<Student> students, boolean parallel) {
+        Student[] snapshot = students.toArray(new Student[0]);
+        DisciplineStatisticsCollector collector;
+        if (parallel && snapshot.length > PARALLEL_THRESHOLD) {
+            collector = ForkJoinPool.commonPool().invoke(new CollectTask(snapshot, 0, snapshot.length));
+        } else {
+            collector = new DisciplineStatisticsCollector();
+            collector.accumulate(snapshot, 0, snapshot.length);
+        }
+        return collector.toReport();
+    }
+
+    // Послідовний збір по одному списку; SchoolRegistry зливає такі збирачі з різних шардів
+    static DisciplineStatisticsCollector of(List<Student> students) {
+        DisciplineStatisticsCollector collector = new DisciplineStatisticsCollector();
+        Student[] snapshot = students.toArray(new Student[0]);
+        collector.accumulate(snapshot, 0, snapshot.length);
+        return collector;
+    }
+
+    void accumulate(Student[] students, int from, int to) {
+        for (int s = from; s < to; s++) {
+            Student student = students[s];
+            synchronized (student) {
+                int disciplineCount = student.disciplineCount();
+                for (int i = 0; i < disciplineCount; i++) {
+                    int nameId = student.disciplineNameIdAt(i);
+                    int grade = student.disciplineGradeAt(i);
+                    if (grade == (byte) grade) {
+                        histogramFor(nameId)[grade - Byte.MIN_VALUE]++;
+                    } else {
+                        histogramFor(nameId);
+                        addOutlier(DisciplineCatalog.keyOf(nameId), grade);
+                    }
+                }
+            }
+        }
+    }
+
+    private int[] histogramFor(int nameId) {
+        int key = DisciplineCatalog.keyOf(nameId);
+        if (key >= histograms.length) {
+            int capacity = Math.max(key + 1, histograms.length * 2);
+            histograms = Arrays.copyOf(histograms, capacity);
+            displayNameIds = Arrays.copyOf(displayNameIds, capacity);
+            outliers = Arrays.copyOf(outliers, capacity);
+            outlierCounts = Arrays.copyOf(outlierCounts, capacity);
+        }
+        int[] histogram = histograms[key];
+        if (histogram == null) {
+            histogram = new int[HISTOGRAM_SIZE];
+            histograms[key] = histogram;
+            displayNameIds[key] = nameId;
+        }
+        return histogram;
+    }
+
+    private void addOutlier(int key, int grade) {
+        int[] values = outliers[key];
+        if (values == null) {
+            values = new int[4];
+        } else if (outlierCounts[key] == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[outlierCounts[key]++] = grade;
+        outliers[key] = values;
+    }
+
+    // Додає лічильники іншого збирача; назви з this мають пріоритет, тож порядок злиття зберігає детермінованість
+    void merge(DisciplineStatisticsCollector other) {
+        for (int key = 0; key < other.histograms.length; key++) {
+            int[] source = other.histograms[key];
+            if (source == null) {
+                continue;
+            }
+            int[] target = histogramFor(other.displayNameIds[key]);
+            for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+                target[i] += source[i];
+            }
+            for (int i = 0; i < other.outlierCounts[key]; i++) {
+                addOutlier(key, other.outliers[key][i]);
+            }
+        }
+    }
+
+    // Звіт, відсортований за назвою дисципліни
+    Map<String, DisciplineStatistics> toReport() {
+        List<DisciplineStatistics> statistics = new ArrayList<>();
+        for (int key = 0; key < histograms.length; key++) {
+            if (histograms[key] != null) {
+                int[] sorted = outliers[key] == null ? NO_OUTLIERS : Arrays.copyOf(outliers[key], outlierCounts[key]);
+                Arrays.sort(sorted);
+                statistics.add(new DisciplineStatistics(DisciplineCatalog.nameOf(displayNameIds[key]), histograms[key], sorted));
+            }
+        }
+        statistics.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+        Map<String, DisciplineStatistics> report = new LinkedHashMap<>();
+        for (DisciplineStatistics discipline : statistics) {
+            report.put(discipline.getName(), discipline);
+        }
+        return Collections.unmodifiableMap(report);
+    }
+
+    private static class CollectTask extends RecursiveTask<DisciplineStatisticsCollector> {
+        private static final long serialVersionUID = 1L;
+
+        private final Student[] students;
+        private final int from;
+        private final int to;
+
+        CollectTask(Student[] students, int from, int to) {
+            this.students = students;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected DisciplineStatisticsCollector compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                DisciplineStatisticsCollector collector = new DisciplineStatisticsCollector();
+                collector.accumulate(students, from, to);
+                return collector;
+            }
+            int middle = (from + to) >>> 1;
+            CollectTask right = new CollectTask(students, middle, to);
+            right.fork();
+            DisciplineStatisticsCollector left = new CollectTask(students, from, middle).compute();
+            left.merge(right.join());
+            return left;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example;
+
+// Обхід дисциплін учня без створення об'єктів Discipline (Student.forEachDiscipline).
+// Викликається під монітором учня, тож не повинен змінювати учня чи школу
+@FunctionalInterface
+public interface DisciplineVisitor {
+    void visit(String name, int grade);
+}
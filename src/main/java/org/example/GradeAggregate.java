@@ -0,0 +1,69 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Накопичувальна сума балів учнів з оцінками, розкладена за кількістю дисциплін учня: кошик c тримає
+// цілу суму балів учнів з c дисциплінами і кількість таких учнів. Цілі суми додаються і віднімаються
+// точно, тож середнє залежить лише від поточного набору учнів, а не від історії змін
+class GradeAggregate {
+    private long[] sums = new long[0];
+    private int[] counts = new int[0];
+    private int gradedCount;
+
+    // Учні без оцінок (сума балів не більша за 0, тобто середній бал не більший за 0.0) не враховуються,
+    // як і в повному перерахунку
+    void include(long gradeSum, int disciplineCount) {
+        if (gradeSum > 0) {
+            ensureBucket(disciplineCount);
+            sums[disciplineCount] += gradeSum;
+            counts[disciplineCount]++;
+            gradedCount++;
+        }
+    }
+
+    void exclude(long gradeSum, int disciplineCount) {
+        if (gradeSum > 0) {
+            ensureBucket(disciplineCount);
+            sums[disciplineCount] -= gradeSum;
+            counts[disciplineCount]--;
+            gradedCount--;
+        }
+    }
+
+    void merge(GradeAggregate other) {
+        ensureBucket(other.sums.length - 1);
+        for (int c = 0; c < other.sums.length; c++) {
+            sums[c] += other.sums[c];
+            counts[c] += other.counts[c];
+        }
+        gradedCount += other.gradedCount;
+    }
+
+    void reset() {
+        Arrays.fill(sums, 0L);
+        Arrays.fill(counts, 0);
+        gradedCount = 0;
+    }
+
+    // Сума середніх балів: кошики за зростанням кількості дисциплін, по одному діленню на кошик
+    double average() {
+        if (gradedCount == 0) {
+            return 0.0;
+        }
+        double total = 0.0;
+        for (int c = 1; c < sums.length; c++) {
+            if (counts[c] != 0) {
+                total += (double) sums[c] / c;
+            }
+        }
+        return total / gradedCount;
+    }
+
+    private void ensureBucket(int disciplineCount) {
+        if (disciplineCount >= sums.length) {
+            int capacity = Math.max(disciplineCount + 1, sums.length * 2);
+            sums = Arrays.copyOf(sums, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+    }
+}
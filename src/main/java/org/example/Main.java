@@ -1,9 +1,56 @@
 package org.example;
 
+import java.io.IOException;
+
 public class Main {
+    private static final String DATA_FILE = "school_data.json";
+
     public static void main(String[] args) {
         System.out.println("Starting School Management Application...");
+        if (args.length > 0 && "--http".equals(args[0])) {
+            // Багатокористувацький режим: java -jar school-management.jar --http [порт]
+            int port = args.length > 1 ? parsePort(args[1]) : 8080;
+            if (port < 0) {
+                System.err.println("Invalid port: " + args[1]);
+                System.err.println("Usage: java -jar school-management.jar [--http [port]]  (port 0-65535)");
+                System.exit(2);
+            }
+            startHttpServer(port);
+            return;
+        }
         ConsoleMenu consoleMenu = new ConsoleMenu();
         consoleMenu.run();
     }
-}
\ No newline at end of file
+
+    // -1, якщо рядок не є номером порту
+    private static int parsePort(String value) {
+        try {
+            int port = Integer.parseInt(value.trim());
+            return port >= 0 && port <= 65535 ? port : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void startHttpServer(int port) {
+        DataService dataService = new DataService();
+        MutationJournal journal = new MutationJournal(dataService, DATA_FILE);
+        try {
+            School school = journal.recover();
+            SchoolHttpServer server = new SchoolHttpServer(school, dataService, port);
+            // Зміни вже пишуться в журнал; при зупинці лише скидаємо його на диск
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing journal for " + DATA_FILE + ": " + e.getMessage());
+                }
+            }, "school-http-shutdown"));
+            server.start();
+        } catch (IOException e) {
+            System.err.println("Could not start HTTP server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
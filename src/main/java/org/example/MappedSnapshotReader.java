@@ -0,0 +1,149 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+// Читання окремих учнів з бінарного знімка (BinarySnapshotFormat) через memory-mapped файл.
+// Файл відображається лише для читання, тож сторінки спільні між процесами;
+// в купі живе тільки учень, якого запитали.
+public class MappedSnapshotReader implements AutoCloseable {
+    // Великі файли відображаються сегментами; перекриття гарантує, що запис не розрізано між сегментами
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private static final long SEGMENT_OVERLAP = 16L << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final MappedByteBuffer[] segments;
+    private final long stringOffsetsPosition;
+    private final long indexPosition;
+    private final int studentCount;
+    private final int stringCount;
+    private final String schoolName;
+
+    public MappedSnapshotReader(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            if (fileSize < BinarySnapshotFormat.MAGIC.length + 1 + BinarySnapshotFormat.FOOTER_SIZE) {
+                throw new IOException("Not an indexed school snapshot file: " + path);
+            }
+            int segmentCount = (int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = i * SEGMENT_SIZE;
+                long length = Math.min(SEGMENT_SIZE + SEGMENT_OVERLAP, fileSize - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+
+            ByteBuffer header = slice(0);
+            for (byte b : BinarySnapshotFormat.MAGIC) {
+                if (header.get() != b) {
+                    throw new IOException("Not a school snapshot file: " + path);
+                }
+            }
+            int version = header.get();
+            if (version != BinarySnapshotFormat.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+
+            ByteBuffer footer = slice(fileSize - BinarySnapshotFormat.FOOTER_SIZE);
+            this.stringOffsetsPosition = footer.getLong();
+            this.indexPosition = footer.getLong();
+            this.studentCount = footer.getInt();
+            this.stringCount = footer.getInt();
+            int schoolNameRef = footer.getInt();
+            for (byte b : BinarySnapshotFormat.FOOTER_MAGIC) {
+                if (footer.get() != b) {
+                    throw new IOException("Snapshot footer is corrupted: " + path);
+                }
+            }
+            this.schoolName = string(schoolNameRef);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public String schoolName() {
+        return schoolName;
+    }
+
+    public int studentCount() {
+        return studentCount;
+    }
+
+    // Бінарний пошук в індексі, потім декодування лише одного запису
+    public Optional<Student> findStudentById(int id) throws IOException {
+        int low = 0;
+        int high = studentCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = slice(indexPosition + (long) mid * BinarySnapshotFormat.INDEX_ENTRY_SIZE).getInt();
+            if (midId < id) {
+                low = mid + 1;
+            } else {
+                if (midId == id) {
+                    found = mid; // Шукаємо перший запис з цим id, як getStudentById
+                }
+                high = mid - 1;
+            }
+        }
+        if (found < 0) {
+            return Optional.empty();
+        }
+        ByteBuffer entry = slice(indexPosition + (long) found * BinarySnapshotFormat.INDEX_ENTRY_SIZE + 4);
+        return Optional.of(decodeStudent(entry.getLong()));
+    }
+
+    private Student decodeStudent(long recordOffset) throws IOException {
+        ByteBuffer record = slice(recordOffset);
+        BinarySnapshotFormat.getVarint(record); // Довжина запису
+        int id = BinarySnapshotFormat.getVarint(record);
+        int firstNameRef = BinarySnapshotFormat.getVarint(record);
+        int lastNameRef = BinarySnapshotFormat.getVarint(record);
+        Student student = Student.restore(id, string(firstNameRef), string(lastNameRef));
+        int disciplineCount = BinarySnapshotFormat.getVarint(record);
+        for (int i = 0; i < disciplineCount; i++) {
+            int nameId = DisciplineCatalog.intern(string(BinarySnapshotFormat.getVarint(record)));
+            student.upsertDiscipline(nameId, BinarySnapshotFormat.getSignedVarint(record));
+        }
+        return student;
+    }
+
+    private String string(int stringId) throws IOException {
+        if (stringId < 0 || stringId >= stringCount) {
+            throw new IOException("Invalid string reference " + stringId + " in " + path);
+        }
+        long offset = slice(stringOffsetsPosition + (long) stringId * 8).getLong();
+        ByteBuffer data = slice(offset);
+        int length = BinarySnapshotFormat.getVarint(data);
+        byte[] utf8 = new byte[length];
+        data.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Незалежний буфер, позиціонований на абсолютне зміщення у файлі
+    private ByteBuffer slice(long offset) throws IOException {
+        if (offset < 0 || offset >= fileSize) {
+            throw new IOException("Offset " + offset + " is outside of snapshot " + path);
+        }
+        int segment = (int) (offset / SEGMENT_SIZE);
+        ByteBuffer buffer = segments[segment].duplicate();
+        buffer.position((int) (offset - segment * SEGMENT_SIZE));
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,657 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/*
+ * Журнал змін (write-ahead log) поверх знімка школи.
+ * Кожна зміна School/Student дописується в кінець файлу <знімок>.journal компактним записом:
+ *   magic "SJNL", version (1 байт), далі записи: тип (1 байт), varint довжина, дані.
+ * При старті знімок завантажується і журнал програється поверх нього.
+ * Коли журнал перевищує поріг, він "запечатується" (перейменовується в .journal.sealed),
+ * а фоновий потік завантажує знімок з диска, програє запечатаний журнал, атомарно
+ * замінює знімок і видаляє запечатаний файл. Жива школа при цьому не читається,
+ * тож компакція не конкурує з тими, хто її змінює.
+ * Зміна школи лише кодує запис і ставить його в чергу; у файл записи пише окремий потік
+ * (і sync()/close()), тож введення-виведення і запуск компакції не відбуваються
+ * під блокуванням школи чи монітором учня.
+ * Заміна всього списку учнів (setStudents, attach) не кодується в журнал: вона ставить у чергу маркер,
+ * після якого записи не потрапляють у файл, доки контрольна точка не запише повний знімок.
+ * Нечитабельний журнал (чужий magic чи версія) при відновленні відкладається в *.corrupt.
+ */
+public class MutationJournal implements SchoolListener, AutoCloseable {
+    private static final byte[] MAGIC = {'S', 'J', 'N', 'L'};
+    private static final int VERSION = 1;
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 8L * 1024 * 1024;
+
+    private static final byte ADD = 1;
+    private static final byte UPDATE = 2;
+    private static final byte REMOVE = 3;
+    private static final byte UPSERT_DISCIPLINE = 4;
+    private static final byte REMOVE_DISCIPLINE = 5;
+    private static final byte RENAME = 7;
+
+    // Маркер скидання в черзі (порівнюється за посиланням): записи після нього чекають на контрольну точку
+    private static final ByteBuffer RESET_MARKER = ByteBuffer.allocate(0);
+
+    private final DataService dataService;
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path sealedPath;
+    private final long compactionThreshold;
+    private final ExecutorService compactor;
+    private final ExecutorService writer;
+
+    // Порядок блокувань: checkpointLock -> монітор журналу -> pending; checkpointLock -> snapshotLock.
+    // Під snapshotLock монітор журналу не береться, а під монітором журналу не чекають на snapshotLock
+    private final Object checkpointLock = new Object();
+    // Серіалізує запис знімка (компакція і контрольна точка)
+    private final Object snapshotLock = new Object();
+
+    // Закодовані записи (і маркери скидання), що ще не у файлі; монітор списку - листовий,
+    // його беруть під блокуваннями школи
+    private final List<ByteBuffer> pending = new ArrayList<>();
+    private boolean writeScheduled;
+
+    private FileChannel channel;
+    private School school;
+    private Future<?> compaction;
+    private boolean checkpointInProgress;
+    private boolean closing;
+    private IOException writeError;
+
+    public MutationJournal(DataService dataService, String snapshotPath) {
+        this(dataService, snapshotPath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public MutationJournal(DataService dataService, String snapshotPath, long compactionThreshold) {
+        if (dataService == null || snapshotPath == null || snapshotPath.trim().isEmpty()) {
+            throw new IllegalArgumentException("Data service and snapshot path cannot be null or empty.");
+        }
+        this.dataService = dataService;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.journalPath = Paths.get(snapshotPath + ".journal");
+        this.sealedPath = Paths.get(snapshotPath + ".journal.sealed");
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Завантажує знімок, програє журнали і починає записувати зміни отриманої школи
+    public synchronized School recover() throws IOException {
+        School recovered = dataService.importSchool(snapshotPath.toString());
+        replay(sealedPath, recovered);
+        replay(journalPath, recovered);
+        openJournal(false);
+        this.school = recovered;
+        recovered.addSchoolListener(this);
+        return recovered;
+    }
+
+    // Перемикає журнал на іншу школу (наприклад, після імпорту) і записує її повний стан контрольною точкою.
+    // Школу не слід змінювати з інших потоків, поки триває attach
+    public void attach(School newSchool) throws IOException {
+        synchronized (this) {
+            if (school != null) {
+                school.removeSchoolListener(this);
+            }
+            if (channel == null) {
+                openJournal(false);
+            }
+            this.school = newSchool;
+            enqueue(RESET_MARKER);
+        }
+        newSchool.addSchoolListener(this);
+        writeCheckpoint(null);
+    }
+
+    // Повний знімок школи (за потреби відсортований). Журнал пишеться далі під час запису знімка,
+    // а після нього з журналу прибирається все, що було записано до початку знімка
+    public void checkpoint(Comparator<Student> sorter) throws IOException {
+        writeCheckpoint(sorter);
+    }
+
+    // Те саме в порядку StudentOrder. Пишеться незмінна версія школи на момент зрізу журналу,
+    // тож її сортують, а не беруть готовий порядок з живих відсортованих індексів
+    public void checkpointSorted(StudentOrder order) throws IOException {
+        writeCheckpoint(order != null ? order.comparator() : null);
+    }
+
+    private void writeCheckpoint(Comparator<Student> sorter) throws IOException {
+        synchronized (checkpointLock) {
+            SchoolSnapshot snapshot;
+            boolean coversReset;
+            long mark;
+            synchronized (this) {
+                writePending();
+                // Маркер перевіряється до знімка: знімок, взятий після маркера, містить і скидання
+                coversReset = resetAtHead();
+                // Знімок і зріз беруться разом під монітором журналу: усе до mark уже є в знімку.
+                // Записи, що стали в чергу між writePending і знімком, потраплять у журнал після mark
+                // і при відновленні програються повторно, що не змінює результату
+                snapshot = school != null ? school.snapshot() : null;
+                mark = channel != null ? channel.size() : 0;
+                checkpointInProgress = true;
+            }
+            try {
+                synchronized (snapshotLock) {
+                    if (snapshot != null) {
+                        List<Student> students = snapshot.students();
+                        if (sorter != null) {
+                            students = new ArrayList<>(students);
+                            students.sort(sorter);
+                        }
+                        writeSnapshot(snapshot.name(), students);
+                    }
+                    Files.deleteIfExists(sealedPath);
+                }
+                synchronized (this) {
+                    dropJournalPrefix(mark);
+                    if (coversReset) {
+                        synchronized (pending) {
+                            pending.remove(0);
+                        }
+                        writePending();
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    checkpointInProgress = false;
+                }
+            }
+        }
+    }
+
+    // Контрольна точка для скидання, що ще чекає в черзі; без скидання нічого не робить
+    private void checkpointPendingReset() throws IOException {
+        boolean reset;
+        synchronized (pending) {
+            reset = pending.contains(RESET_MARKER);
+        }
+        if (reset) {
+            writeCheckpoint(null);
+        }
+    }
+
+    private boolean resetAtHead() {
+        synchronized (pending) {
+            return !pending.isEmpty() && pending.get(0) == RESET_MARKER;
+        }
+    }
+
+    public synchronized long journalSize() throws IOException {
+        writePending();
+        return channel != null ? channel.size() : 0;
+    }
+
+    // Дописує чергу у файл і скидає журнал на диск: після повернення всі зміни до виклику збережені
+    // (якщо в черзі є скидання - спершу записується контрольна точка)
+    public void sync() throws IOException {
+        checkpointPendingReset();
+        synchronized (this) {
+            writePending();
+            throwIfWriteFailed();
+            if (channel != null) {
+                channel.force(false);
+            }
+        }
+    }
+
+    // Запускає фонову компакцію, якщо попередня вже завершилась
+    public synchronized Future<?> compactAsync() throws IOException {
+        writePending();
+        if (closing || compaction != null && !compaction.isDone()) {
+            return compaction;
+        }
+        if (channel == null || channel.size() <= MAGIC.length + 1) {
+            return compaction;
+        }
+        if (checkpointInProgress) {
+            return compaction; // Контрольна точка сама очистить журнал
+        }
+        if (!Files.exists(sealedPath)) {
+            channel.force(true);
+            channel.close();
+            Files.move(journalPath, sealedPath, StandardCopyOption.ATOMIC_MOVE);
+            openJournal(true);
+        }
+        compaction = compactor.submit(() -> {
+            synchronized (snapshotLock) {
+                try {
+                    if (!Files.exists(sealedPath)) {
+                        return; // Вже враховано контрольною точкою
+                    }
+                    School folded = dataService.readSchool(snapshotPath.toString());
+                    replay(sealedPath, folded);
+                    writeSnapshot(folded.getName(), folded.getStudents());
+                    Files.deleteIfExists(sealedPath);
+                } catch (IOException e) {
+                    System.err.println("Journal compaction failed: " + e.getMessage());
+                }
+            }
+        });
+        return compaction;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (school != null) {
+                school.removeSchoolListener(this);
+            }
+            closing = true;
+        }
+        checkpointPendingReset();
+        Future<?> running;
+        synchronized (this) {
+            school = null;
+            writePending();
+            running = compaction;
+        }
+        // Компакцію чекаємо без монітора журналу: вона тримає snapshotLock, а контрольна точка
+        // після snapshotLock бере монітор журналу
+        awaitCompaction(running);
+        compactor.shutdown();
+        writer.shutdown();
+        synchronized (this) {
+            writePending();
+            if (channel != null) {
+                channel.force(true);
+                channel.close();
+                channel = null;
+            }
+            throwIfWriteFailed();
+        }
+    }
+
+    // Слухач школи: кожна зміна - один запис у журналі.
+    // Запис кодується (читаючи учня під його монітором) і ставиться в чергу; монітор журналу
+    // на цьому шляху не береться зовсім.
+
+    @Override
+    public void studentAdded(Student student) {
+        append(ADD, encodeStudent(newRecord(), student));
+    }
+
+    @Override
+    public void studentUpdated(Student student) {
+        append(UPDATE, encodeStudent(newRecord(), student));
+    }
+
+    @Override
+    public void studentRemoved(int studentId) {
+        append(REMOVE, BinarySnapshotFormat.putVarint(newRecord(), studentId));
+    }
+
+    @Override
+    public void disciplineUpserted(Student student, String disciplineName, int grade) {
+        ByteBuffer data = BinarySnapshotFormat.putVarint(newRecord(), student.getId());
+        data = putString(data, disciplineName);
+        data = BinarySnapshotFormat.putSignedVarint(data, grade);
+        append(UPSERT_DISCIPLINE, data);
+    }
+
+    @Override
+    public void disciplineRemoved(Student student, String disciplineName) {
+        ByteBuffer data = BinarySnapshotFormat.putVarint(newRecord(), student.getId());
+        append(REMOVE_DISCIPLINE, putString(data, disciplineName));
+    }
+
+    @Override
+    public void schoolRenamed(String name) {
+        append(RENAME, putString(newRecord(), name));
+    }
+
+    // Повний стан не кодується в журнал: маркер затримує наступні записи, а контрольна точка
+    // у фоні (або в sync()/close()) пише знімок школи і знімає маркер
+    @Override
+    public void studentsReset(String schoolName, List<Student> students) {
+        enqueue(RESET_MARKER);
+        try {
+            compactor.execute(() -> {
+                try {
+                    checkpointPendingReset();
+                } catch (IOException e) {
+                    System.err.println("Journal checkpoint after reset failed: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Журнал закривається; close() сам запише контрольну точку
+        }
+    }
+
+    private static ByteBuffer newRecord() {
+        return ByteBuffer.allocate(64);
+    }
+
+    private void append(byte type, ByteBuffer data) {
+        write(appendFramed(newRecord(), type, data));
+    }
+
+    // Додає до batch запис: тип, varint довжина, дані
+    private static ByteBuffer appendFramed(ByteBuffer batch, byte type, ByteBuffer data) {
+        batch = BinarySnapshotFormat.putVarint(batch, type);
+        batch = BinarySnapshotFormat.putVarint(batch, data.position());
+        data.flip();
+        if (batch.remaining() < data.remaining()) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + data.remaining()));
+            batch.flip();
+            batch = bigger.put(batch);
+        }
+        return batch.put(data);
+    }
+
+    // Шлях зміни: лише черга в пам'яті, без вводу-виводу і без монітора журналу
+    private void write(ByteBuffer batch) {
+        batch.flip();
+        enqueue(batch);
+    }
+
+    private void enqueue(ByteBuffer batch) {
+        boolean schedule;
+        synchronized (pending) {
+            pending.add(batch);
+            schedule = !writeScheduled;
+            writeScheduled = true;
+        }
+        if (schedule) {
+            try {
+                writer.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Журнал закривається; close() допише чергу сам
+            }
+        }
+    }
+
+    // Потік writer: запис черги у файл і, якщо журнал завеликий, запуск компакції
+    private synchronized void drain() {
+        try {
+            writePending();
+            if (channel != null && channel.size() > compactionThreshold) {
+                compactAsync();
+            }
+        } catch (IOException e) {
+            writeError = e;
+            System.err.println("Cannot append to journal " + journalPath + ": " + e.getMessage());
+        }
+    }
+
+    // Під монітором журналу, тож записи потрапляють у файл у порядку надходження в чергу.
+    // Зупиняється на маркері скидання: його і все після нього знімає лише контрольна точка
+    private void writePending() throws IOException {
+        List<ByteBuffer> batches;
+        synchronized (pending) {
+            writeScheduled = false;
+            int end = pending.indexOf(RESET_MARKER);
+            if (end < 0) {
+                end = pending.size();
+            }
+            if (end == 0) {
+                return;
+            }
+            List<ByteBuffer> head = pending.subList(0, end);
+            batches = new ArrayList<>(head);
+            head.clear();
+        }
+        if (channel == null) {
+            return;
+        }
+        for (ByteBuffer batch : batches) {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+        }
+    }
+
+    private void throwIfWriteFailed() throws IOException {
+        IOException error = writeError;
+        if (error != null) {
+            writeError = null;
+            throw new IOException("Cannot append to journal " + journalPath + ": " + error.getMessage(), error);
+        }
+    }
+
+    private static ByteBuffer encodeStudent(ByteBuffer data, Student student) {
+        synchronized (student) {
+            return encodeStudentLocked(data, student);
+        }
+    }
+
+    private static ByteBuffer encodeStudentLocked(ByteBuffer data, Student student) {
+        data = BinarySnapshotFormat.putVarint(data, student.getId());
+        data = putString(data, student.getFirstName());
+        data = putString(data, student.getLastName());
+        data = BinarySnapshotFormat.putVarint(data, student.disciplineCount());
+        for (int i = 0; i < student.disciplineCount(); i++) {
+            data = putString(data, DisciplineCatalog.nameOf(student.disciplineNameIdAt(i)));
+            data = BinarySnapshotFormat.putSignedVarint(data, student.disciplineGradeAt(i));
+        }
+        return data;
+    }
+
+    private static Student decodeStudent(ByteBuffer data) throws IOException {
+        Student student = Student.restore(BinarySnapshotFormat.getVarint(data), getString(data), getString(data));
+        int disciplineCount = BinarySnapshotFormat.getVarint(data);
+        for (int i = 0; i < disciplineCount; i++) {
+            student.upsertDiscipline(DisciplineCatalog.intern(getString(data)), BinarySnapshotFormat.getSignedVarint(data));
+        }
+        return student;
+    }
+
+    private static ByteBuffer putString(ByteBuffer data, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        data = BinarySnapshotFormat.putVarint(data, utf8.length);
+        if (data.remaining() < utf8.length) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(data.capacity() * 2, data.position() + utf8.length));
+            data.flip();
+            data = bigger.put(data);
+        }
+        return data.put(utf8);
+    }
+
+    private static String getString(ByteBuffer data) throws IOException {
+        int length = BinarySnapshotFormat.getVarint(data);
+        byte[] utf8 = new byte[length];
+        data.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Програє журнал на школу; обірваний останній запис (збій під час запису) відкидається
+    private static void replay(Path path, School target) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (data.remaining() < MAGIC.length + 1) {
+            return;
+        }
+        for (byte b : MAGIC) {
+            if (data.get() != b) {
+                setAsideCorrupt(path, "not a school journal file");
+                return;
+            }
+        }
+        int version = data.get();
+        if (version != VERSION) {
+            setAsideCorrupt(path, "unsupported journal version " + version);
+            return;
+        }
+        while (data.hasRemaining()) {
+            int recordStart = data.position();
+            byte type = data.get();
+            int length;
+            try {
+                length = BinarySnapshotFormat.getVarint(data);
+            } catch (RuntimeException e) {
+                length = Integer.MAX_VALUE;
+            }
+            if (length > data.remaining()) {
+                System.err.println("Ignoring truncated journal record at offset " + recordStart + " in " + path);
+                return;
+            }
+            ByteBuffer payload = data.slice();
+            payload.limit(length);
+            data.position(data.position() + length);
+            apply(type, payload, target);
+        }
+    }
+
+    // Журнал, який неможливо прочитати, не зупиняє відновлення: файл зберігається поруч для розбору,
+    // а школа відновлюється зі знімка (і решти журналів)
+    private static void setAsideCorrupt(Path path, String reason) throws IOException {
+        Path corrupt = Paths.get(path + ".corrupt");
+        Files.move(path, corrupt, StandardCopyOption.REPLACE_EXISTING);
+        System.err.println("Ignoring journal " + path + " (" + reason + "), moved to " + corrupt);
+    }
+
+    private static void apply(byte type, ByteBuffer payload, School target) throws IOException {
+        switch (type) {
+            case ADD:
+                target.addStudent(decodeStudent(payload));
+                break;
+            case UPDATE: {
+                Student student = decodeStudent(payload);
+                if (!target.updateStudent(student)) {
+                    target.addStudent(student);
+                }
+                break;
+            }
+            case REMOVE:
+                target.removeStudent(BinarySnapshotFormat.getVarint(payload));
+                break;
+            case UPSERT_DISCIPLINE: {
+                int studentId = BinarySnapshotFormat.getVarint(payload);
+                String disciplineName = getString(payload);
+                int grade = BinarySnapshotFormat.getSignedVarint(payload);
+                target.getStudentById(studentId)
+                        .ifPresent(s -> s.upsertDiscipline(DisciplineCatalog.intern(disciplineName), grade));
+                break;
+            }
+            case REMOVE_DISCIPLINE: {
+                int studentId = BinarySnapshotFormat.getVarint(payload);
+                String disciplineName = getString(payload);
+                target.getStudentById(studentId).ifPresent(s -> s.removeDiscipline(disciplineName));
+                break;
+            }
+            case RENAME:
+                target.setName(getString(payload));
+                break;
+            default:
+                throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    private void openJournal(boolean truncate) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        if (journalPath.getParent() != null) {
+            Files.createDirectories(journalPath.getParent());
+        }
+        if (truncate) {
+            Files.deleteIfExists(journalPath);
+        }
+        channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 1);
+            header.put(MAGIC).put((byte) VERSION).flip();
+            channel.write(header);
+        } else {
+            truncateTornTail();
+        }
+    }
+
+    // Залишає в журналі лише записи після mark (атомарна заміна файлу)
+    private void dropJournalPrefix(long mark) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        channel.force(true);
+        long tailSize = Math.max(0, channel.size() - mark);
+        ByteBuffer tail = ByteBuffer.allocate((int) tailSize);
+        while (tail.hasRemaining() && channel.read(tail, mark + tail.position()) >= 0) {
+            // читаємо хвіст повністю
+        }
+        tail.flip();
+        Path tmp = Paths.get(journalPath + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 1);
+            header.put(MAGIC).put((byte) VERSION).flip();
+            out.write(new ByteBuffer[]{header, tail});
+            out.force(true);
+        }
+        channel.close();
+        channel = null;
+        Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openJournal(false);
+    }
+
+    // Обрізає обірваний хвіст, щоб нові записи йшли після останнього цілого запису
+    private void truncateTornTail() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+        data.position(Math.min(data.limit(), MAGIC.length + 1));
+        int validEnd = data.position();
+        while (data.remaining() >= 2) {
+            data.get();
+            int length;
+            try {
+                length = BinarySnapshotFormat.getVarint(data);
+            } catch (RuntimeException e) {
+                break;
+            }
+            if (length > data.remaining()) {
+                break;
+            }
+            data.position(data.position() + length);
+            validEnd = data.position();
+        }
+        if (validEnd < channel.size()) {
+            channel.truncate(validEnd);
+        }
+    }
+
+    // Запис знімка через тимчасовий файл і атомарне перейменування; без виводу в консоль
+    private void writeSnapshot(String schoolName, List<Student> students) throws IOException {
+        Path tmp = Paths.get(snapshotPath + ".tmp" + DataFormat.fromFileName(snapshotPath.toString()).getExtension());
+        dataService.writeStudents(schoolName, students, tmp.toString());
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void awaitCompaction(Future<?> compaction) throws IOException {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for journal compaction.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Journal compaction failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+// Знімок метрик однієї операції; для JMX перетворюється на CompositeData за гетерами
+public class OperationMetrics {
+    private final String operation;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long bytes;
+    private final long students;
+
+    OperationMetrics(String operation, long count, long totalNanos, long maxNanos,
+                     long p50Nanos, long p99Nanos, long bytes, long students) {
+        this.operation = operation;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.bytes = bytes;
+        this.students = students;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // Для операцій, що лише рахуються (без вимірювання часу), затримки нульові
+    public double getMeanMicros() {
+        return count == 0 ? 0.0 : totalNanos / 1_000.0 / count;
+    }
+
+    public double getMaxMicros() {
+        return maxNanos / 1_000.0;
+    }
+
+    // Перцентилі - верхні межі кошиків гістограми (степені двійки), тобто оцінка зверху
+    public double getP50Micros() {
+        return p50Nanos / 1_000.0;
+    }
+
+    public double getP99Micros() {
+        return p99Nanos / 1_000.0;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getStudents() {
+        return students;
+    }
+
+    // Швидкість розбору/запису: учнів за секунду сумарного часу операції
+    public double getStudentsPerSecond() {
+        return totalNanos == 0 ? 0.0 : students * 1_000_000_000.0 / totalNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return totalNanos == 0 ? 0.0 : bytes * 1_000.0 / totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics{" +
+                "operation='" + operation + '\'' +
+                ", count=" + count +
+                ", meanMicros=" + String.format("%.1f", getMeanMicros()) +
+                ", p99Micros=" + String.format("%.1f", getP99Micros()) +
+                ", bytes=" + bytes +
+                ", students=" + students +
+                '}';
+    }
+}
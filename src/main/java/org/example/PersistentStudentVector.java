@@ -0,0 +1,121 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Незмінний вектор учнів - 32-арне префіксне дерево з окремим хвостом (як PersistentVector у Clojure).
+// append і with копіюють лише шлях від кореня до зміненого листа (log32 n вузлів), решта дерева
+// спільна з попередньою версією, тож старі версії лишаються цілими для тих, хто їх ще читає.
+// null у комірці - видалений учень (див. SchoolSnapshotPublisher).
+final class PersistentStudentVector {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+    static final PersistentStudentVector EMPTY = new PersistentStudentVector(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentStudentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Student get(int index) {
+        return (Student) leafFor(index)[index & MASK];
+    }
+
+    // Лист (масив до 32 учнів), що містить index; для послідовного обходу без спуску на кожен елемент
+    Object[] leafFor(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    PersistentStudentVector append(Student student) {
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = student;
+            return new PersistentStudentVector(size + 1, shift, root, newTail);
+        }
+        // Хвіст заповнений: переносимо його в дерево, за потреби додаючи рівень
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentStudentVector(size + 1, newShift, newRoot, new Object[]{student});
+    }
+
+    PersistentStudentVector with(int index, Student student) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = student;
+            return new PersistentStudentVector(size, shift, root, newTail);
+        }
+        return new PersistentStudentVector(size, shift, assoc(shift, root, index, student), tail);
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int subIndex = ((size - 1) >>> level) & MASK;
+        Object[] result = parent.clone();
+        Object[] inserted;
+        if (level == BITS) {
+            inserted = tailNode;
+        } else {
+            Object[] child = (Object[]) parent[subIndex];
+            inserted = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        result[subIndex] = inserted;
+        return result;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+
+    private static Object[] assoc(int level, Object[] node, int index, Student student) {
+        Object[] result = node.clone();
+        if (level == 0) {
+            result[index & MASK] = student;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            result[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, student);
+        }
+        return result;
+    }
+}
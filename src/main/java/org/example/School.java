@@ -1,20 +1,92 @@
 package org.example;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
 
+// Потокобезпечна школа. Порядок блокувань: lock школи -> монітор учня -> aggregateLock / блокування індексів.
+// Зміни дисциплін відбуваються під монітором учня і не беруть lock школи,
+// тому оновлення оцінок різних учнів виконуються паралельно.
 public class School {
-    private String name;
-    private List<Student> students;
+    private volatile String name;
+    private volatile List<Student> students;
+    // Індекс id -> учень для пошуку за O(1); синхронізується з усіма змінами списку
+    private StudentIndex studentIndex;
+    // Список, індекс і назва: оптимістичне читання, запис - ексклюзивно
+    private final StampedLock lock = new StampedLock();
+    // Суми балів учнів з оцінками за кількістю дисциплін; власне блокування, бо змінюється зі змінами учнів
+    private final GradeAggregate gradeAggregate = new GradeAggregate();
+    private final StampedLock aggregateLock = new StampedLock();
+    private final StudentObserver studentObserver = new StudentObserver() {
+        @Override
+        public void beforeStudentChange(Student student) {
+            excludeFromAggregate(student);
+            SortedStudentViews views = sortedViews;
+            if (views != null) {
+                views.beforeChange(student);
+            }
+        }
+
+        @Override
+        public void afterStudentChange(Student student) {
+            includeInAggregate(student);
+            SortedStudentViews views = sortedViews;
+            if (views != null) {
+                views.add(student);
+            }
+            SchoolSnapshotPublisher publisher = snapshots;
+            if (publisher != null) {
+                publisher.update(student);
+            }
+        }
+
+        @Override
+        public void disciplineUpserted(Student student, int nameId, int grade) {
+            String disciplineName = DisciplineCatalog.nameOf(nameId);
+            for (SchoolListener listener : listeners) {
+                listener.disciplineUpserted(student, disciplineName, grade);
+            }
+        }
+
+        @Override
+        public void disciplineRemoved(Student student, int nameId) {
+            String disciplineName = DisciplineCatalog.nameOf(nameId);
+            for (SchoolListener listener : listeners) {
+                listener.disciplineRemoved(student, disciplineName);
+            }
+        }
+
+        @Override
+        public void studentDetailsChanged(Student student) {
+            StudentNameIndex index = nameIndex;
+            if (index != null) {
+                index.add(student); // Переіндексовує, якщо змінилося ім'я
+            }
+            for (SchoolListener listener : listeners) {
+                listener.studentUpdated(student);
+            }
+        }
+    };
+    private final List<SchoolListener> listeners = new CopyOnWriteArrayList<>();
+    // Необов'язкові живі індекси для StudentOrder; null - вимкнено
+    private volatile SortedStudentViews sortedViews;
+    // Пошук за іменем; будується при першому пошуку і далі підтримується при кожній зміні
+    private volatile StudentNameIndex nameIndex;
+    // Незмінні версії школи; створюються при першому snapshot() і далі оновлюються з кожною зміною
+    private volatile SchoolSnapshotPublisher snapshots;
 
     // Потрібен для десеріалізації Jackson
     public School() {
         this.students = new ArrayList<>();
+        this.studentIndex = new StudentIndex();
     }
 
     public School(String name) {
@@ -23,6 +95,7 @@ public class School {
         }
         this.name = name;
         this.students = new ArrayList<>();
+        this.studentIndex = new StudentIndex();
     }
 
     // Гетери
@@ -30,20 +103,126 @@ public class School {
         return name;
     }
 
+    // Живе представлення списку лише для читання, без копіювання. Обходити його, поки інші потоки
+    // змінюють школу, не можна - для цього є copyOfStudents() або snapshot()
     public List<Student> getStudents() {
         return Collections.unmodifiableList(students);
     }
 
+    // Незмінна копія списку на момент виклику: її можна обходити, поки інші потоки змінюють школу
+    public List<Student> copyOfStudents() {
+        return Collections.unmodifiableList(copyStudents());
+    }
+
+    // Копія списку в заданому порядку: з увімкненими відсортованими індексами - обхід дерева без сортування
+    public List<Student> getStudents(StudentOrder order) {
+        if (order == null) {
+            return copyOfStudents();
+        }
+        SortedStudentViews views = sortedViews;
+        if (views != null) {
+            return Collections.unmodifiableList(views.ordered(order));
+        }
+        List<Student> sorted = copyStudents();
+        sorted.sort(order.comparator());
+        return Collections.unmodifiableList(sorted);
+    }
+
+    private List<Student> copyStudents() {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                List<Student> copy = new ArrayList<>(students);
+                if (lock.validate(stamp)) {
+                    return copy;
+                }
+            } catch (RuntimeException e) {
+                // Список змінювався під час копіювання - повторимо під блокуванням
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return new ArrayList<>(students);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Сторінка списку: копіюються лише limit учнів починаючи з offset, а не весь список
+    public List<Student> getStudents(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative.");
+        }
+        long stamp = lock.readLock();
+        try {
+            int from = Math.min(offset, students.size());
+            int to = (int) Math.min((long) from + limit, students.size());
+            return asUnmodifiableList(students.subList(from, to).toArray());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Student> asUnmodifiableList(Object[] copy) {
+        return Collections.unmodifiableList((List<Student>) (List<?>) Arrays.asList(copy));
+    }
+
     // Сетери
     public void setName(String name) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("School name cannot be empty.");
         }
-        this.name = name;
+        long stamp = lock.writeLock();
+        try {
+            this.name = name;
+            SchoolSnapshotPublisher publisher = snapshots;
+            if (publisher != null) {
+                publisher.rename(name);
+            }
+            for (SchoolListener listener : listeners) {
+                listener.schoolRenamed(name);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void setStudents(List<Student> students) {
-        this.students = new ArrayList<>(students); // Створюємо копію
+        List<Student> copy = new ArrayList<>(students); // Створюємо копію
+        long stamp = lock.writeLock();
+        try {
+            for (Student student : this.students) {
+                student.removeObserver(studentObserver);
+            }
+            this.students = copy;
+            rebuildIndex();
+            fireStudentsReset();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void rebuildIndex() {
+        this.studentIndex = new StudentIndex(students.size());
+        resetAggregate();
+        SortedStudentViews views = sortedViews;
+        if (views != null) {
+            views.clear();
+        }
+        StudentNameIndex index = nameIndex;
+        if (index != null) {
+            index.clear();
+        }
+        SchoolSnapshotPublisher publisher = snapshots;
+        if (publisher != null) {
+            publisher.clear();
+        }
+        for (Student student : students) {
+            // При дублікатах у файлі пошук повертає перший запис, як і раніше
+            studentIndex.putIfAbsent(student.getId(), student);
+            attach(student);
+        }
     }
 
     public boolean addStudent(Student student) {
@@ -51,83 +230,512 @@ public class School {
             System.err.println("Cannot add null student.");
             return false;
         }
-        if (students.stream().anyMatch(s -> s.getId() == student.getId())) {
-            System.err.println("Student with ID " + student.getId() + " already exists.");
-            return false;
+        long start = SchoolMetrics.start();
+        long stamp = lock.writeLock();
+        try {
+            if (studentIndex.contains(student.getId())) {
+                System.err.println("Student with ID " + student.getId() + " already exists.");
+                return false;
+            }
+            studentIndex.put(student.getId(), student);
+            attach(student);
+            students.add(student);
+            for (SchoolListener listener : listeners) {
+                listener.studentAdded(student);
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+            SchoolMetrics.record(SchoolMetrics.Operation.ADD_STUDENT, start);
+        }
+    }
+
+    // Пакетне додавання під одним блокуванням запису: дублікати (з уже наявними учнями чи в самому пакеті)
+    // виявляються через індекс за O(1) на учня і повертаються в результаті замість виводу в System.err
+    public BatchResult<Student> addStudents(Collection<Student> newStudents) {
+        BatchResult<Student> result = new BatchResult<>();
+        if (newStudents == null || newStudents.isEmpty()) {
+            return result;
+        }
+        long start = SchoolMetrics.start();
+        long stamp = lock.writeLock();
+        try {
+            studentIndex.ensureCapacity(studentIndex.size() + newStudents.size());
+            if (students instanceof ArrayList) {
+                ((ArrayList<Student>) students).ensureCapacity(students.size() + newStudents.size());
+            }
+            for (Student student : newStudents) {
+                if (student == null) {
+                    result.reject(null, "Student cannot be null.");
+                } else if (!studentIndex.putIfAbsent(student.getId(), student)) {
+                    result.reject(student, "Student with ID " + student.getId() + " already exists.");
+                } else {
+                    attach(student);
+                    students.add(student);
+                    for (SchoolListener listener : listeners) {
+                        listener.studentAdded(student);
+                    }
+                    result.accept();
+                }
+            }
+            return result;
+        } finally {
+            lock.unlockWrite(stamp);
+            SchoolMetrics.record(SchoolMetrics.Operation.ADD_STUDENTS, start);
         }
-        return students.add(student);
+    }
+
+    // Пакетне завантаження оцінок: id учня -> його дисципліни; кожен учень змінюється одним кроком.
+    // Відхилені записи - невідомі id і некоректні дисципліни
+    public BatchResult<Discipline> addOrUpdateDisciplines(Map<Integer, ? extends Collection<Discipline>> gradesByStudentId) {
+        BatchResult<Discipline> result = new BatchResult<>();
+        if (gradesByStudentId == null) {
+            return result;
+        }
+        long start = SchoolMetrics.start();
+        for (Map.Entry<Integer, ? extends Collection<Discipline>> entry : gradesByStudentId.entrySet()) {
+            Optional<Student> student = entry.getKey() == null ? Optional.empty() : getStudentById(entry.getKey());
+            if (!student.isPresent()) {
+                for (Discipline discipline : entry.getValue()) {
+                    result.reject(discipline, "Student with ID " + entry.getKey() + " not found.");
+                }
+                continue;
+            }
+            result.merge(student.get().addOrUpdateDisciplines(entry.getValue()));
+        }
+        SchoolMetrics.record(SchoolMetrics.Operation.UPDATE_GRADES, start);
+        return result;
     }
 
     public Optional<Student> getStudentById(int id) {
-        return students.stream()
-                .filter(s -> s.getId() == id)
-                .findFirst();
+        SchoolMetrics.count(SchoolMetrics.Operation.FIND_STUDENT);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                Student found = studentIndex.get(id);
+                if (lock.validate(stamp)) {
+                    return Optional.ofNullable(found);
+                }
+            } catch (RuntimeException e) {
+                // Індекс перебудовувався під час читання - повторимо під блокуванням
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(studentIndex.get(id));
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     public boolean updateStudent(Student updatedStudent) {
         if (updatedStudent == null) return false;
-        Optional<Student> existingStudentOpt = getStudentById(updatedStudent.getId());
-        if (existingStudentOpt.isPresent()) {
-            // Видаляємо старий запис і додаємо новий
-            students.remove(existingStudentOpt.get());
-            students.add(updatedStudent);
+        long start = SchoolMetrics.start();
+        long stamp = lock.writeLock();
+        try {
+            Student existingStudent = studentIndex.get(updatedStudent.getId());
+            if (existingStudent != null) {
+                // Видаляємо старий запис і додаємо новий
+                removeInstance(existingStudent);
+                detach(existingStudent);
+                students.add(updatedStudent);
+                studentIndex.put(updatedStudent.getId(), updatedStudent);
+                attach(updatedStudent);
+                for (SchoolListener listener : listeners) {
+                    listener.studentUpdated(updatedStudent);
+                }
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+            SchoolMetrics.record(SchoolMetrics.Operation.UPDATE_STUDENT, start);
+        }
+    }
+
+    public boolean removeStudent(int id) {
+        long start = SchoolMetrics.start();
+        long stamp = lock.writeLock();
+        try {
+            if (studentIndex.remove(id) == null) {
+                return false;
+            }
+            students.removeIf(student -> {
+                if (student.getId() != id) {
+                    return false;
+                }
+                detach(student);
+                return true;
+            });
+            for (SchoolListener listener : listeners) {
+                listener.studentRemoved(id);
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+            SchoolMetrics.record(SchoolMetrics.Operation.REMOVE_STUDENT, start);
+        }
+    }
+
+    // Безпечне оновлення оцінки за id: блокується лише сам учень, а не вся школа
+    public boolean upsertDiscipline(int studentId, Discipline discipline) {
+        Optional<Student> student = getStudentById(studentId);
+        if (student.isPresent() && discipline != null) {
+            student.get().addOrUpdateDiscipline(discipline);
             return true;
         }
         return false;
     }
 
-    public boolean removeStudent(int id) {
-        return students.removeIf(student -> student.getId() == id);
+    public boolean removeDiscipline(int studentId, String disciplineName) {
+        Optional<Student> student = getStudentById(studentId);
+        return student.isPresent() && student.get().removeDiscipline(disciplineName);
+    }
+
+    private void removeInstance(Student student) {
+        for (int i = 0; i < students.size(); i++) {
+            if (students.get(i) == student) {
+                students.remove(i);
+                return;
+            }
+        }
+    }
+
+    private void attach(Student student) {
+        // Під монітором учня, щоб між підпискою і врахуванням у сумі не вклинилась зміна оцінок
+        synchronized (student) {
+            student.addObserver(studentObserver);
+            includeInAggregate(student);
+            SortedStudentViews views = sortedViews;
+            if (views != null) {
+                views.add(student);
+            }
+            StudentNameIndex index = nameIndex;
+            if (index != null) {
+                index.add(student);
+            }
+            SchoolSnapshotPublisher publisher = snapshots;
+            if (publisher != null) {
+                publisher.add(student);
+            }
+        }
+    }
+
+    private void detach(Student student) {
+        synchronized (student) {
+            student.removeObserver(studentObserver);
+            excludeFromAggregate(student);
+            SortedStudentViews views = sortedViews;
+            if (views != null) {
+                views.remove(student);
+            }
+            StudentNameIndex index = nameIndex;
+            if (index != null) {
+                index.remove(student);
+            }
+            SchoolSnapshotPublisher publisher = snapshots;
+            if (publisher != null) {
+                publisher.remove(student);
+            }
+        }
+    }
+
+    // Викликається під монітором учня, тож сума і кількість дисциплін узгоджені
+    private void includeInAggregate(Student student) {
+        long gradeSum = student.gradeSum();
+        int disciplineCount = student.disciplineCount();
+        long stamp = aggregateLock.writeLock();
+        try {
+            gradeAggregate.include(gradeSum, disciplineCount);
+        } finally {
+            aggregateLock.unlockWrite(stamp);
+        }
+    }
+
+    private void excludeFromAggregate(Student student) {
+        long gradeSum = student.gradeSum();
+        int disciplineCount = student.disciplineCount();
+        long stamp = aggregateLock.writeLock();
+        try {
+            gradeAggregate.exclude(gradeSum, disciplineCount);
+        } finally {
+            aggregateLock.unlockWrite(stamp);
+        }
+    }
+
+    private void resetAggregate() {
+        long stamp = aggregateLock.writeLock();
+        try {
+            gradeAggregate.reset();
+        } finally {
+            aggregateLock.unlockWrite(stamp);
+        }
+    }
+
+    private void fireStudentsReset() {
+        List<Student> snapshot = asUnmodifiableList(students.toArray());
+        for (SchoolListener listener : listeners) {
+            listener.studentsReset(name, snapshot);
+        }
     }
 
     // Бізнес-логіка
+    // Середнє серед учнів з оцінками; підтримується інкрементально, тож не залежить від кількості учнів
     public double calculateSchoolAverageGrade() {
-        if (students == null || students.isEmpty()) {
-            return 0.0;
+        SchoolMetrics.count(SchoolMetrics.Operation.SCHOOL_AVERAGE);
+        long stamp = aggregateLock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                double average = gradeAggregate.average();
+                if (aggregateLock.validate(stamp)) {
+                    return average;
+                }
+            } catch (RuntimeException e) {
+                // Кошики розширювались під час читання - повторимо під блокуванням
+            }
+        }
+        stamp = aggregateLock.readLock();
+        try {
+            return gradeAggregate.average();
+        } finally {
+            aggregateLock.unlockRead(stamp);
+        }
+    }
+
+    // Копія сум балів для об'єднання кількох шкіл (SchoolRegistry)
+    GradeAggregate gradeAggregateSnapshot() {
+        GradeAggregate copy = new GradeAggregate();
+        long stamp = aggregateLock.readLock();
+        try {
+            copy.merge(gradeAggregate);
+        } finally {
+            aggregateLock.unlockRead(stamp);
         }
+        return copy;
+    }
 
-        // Отримуємо середні бали всіх учнів, які мають оцінки (> 0.0)
-        List<Double> studentAverages = students.stream()
-                .map(Student::calculateAverageGrade)
-                .filter(avg -> avg > 0.0) // Враховуємо тільки учнів з оцінками
-                .collect(Collectors.toList());
+    // Статистика кожної дисципліни (кількість, середнє, мін/макс, гістограма, перцентилі) за один прохід
+    public Map<String, DisciplineStatistics> calculateDisciplineStatistics() {
+        return calculateDisciplineStatistics(false);
+    }
 
-        if (studentAverages.isEmpty()) {
-            return 0.0; // Немає учнів з оцінками
+    // parallel = true ділить великі школи на частини і рахує їх у ForkJoinPool
+    public Map<String, DisciplineStatistics> calculateDisciplineStatistics(boolean parallel) {
+        long start = SchoolMetrics.start();
+        try {
+            return DisciplineStatisticsCollector.collect(copyOfStudents(), parallel);
+        } finally {
+            SchoolMetrics.record(SchoolMetrics.Operation.DISCIPLINE_STATISTICS, start);
         }
+    }
+
+    // k учнів з найвищим середнім балом, найкращий першим; порядок у школі не змінюється
+    public List<Student> topStudents(int k) {
+        return rankStudents(null, k, true, false);
+    }
+
+    public List<Student> bottomStudents(int k) {
+        return rankStudents(null, k, false, false);
+    }
+
+    // k учнів з найвищою оцінкою з дисципліни (без урахування регістру назви)
+    public List<Student> topStudents(String disciplineName, int k) {
+        return rankStudents(disciplineName, k, true, false);
+    }
 
-        double sumOfAverages = studentAverages.stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
+    public List<Student> bottomStudents(String disciplineName, int k) {
+        return rankStudents(disciplineName, k, false, false);
+    }
 
-        return sumOfAverages / studentAverages.size();
+    // Загальний вигляд: disciplineName == null - за середнім балом; highest = false - найгірші першими;
+    // parallel = true обробляє великі школи частинами у ForkJoinPool і зливає часткові результати
+    public List<Student> rankStudents(String disciplineName, int k, boolean highest, boolean parallel) {
+        long start = SchoolMetrics.start();
+        try {
+            return StudentRanking.select(copyOfStudents(), disciplineName, k, highest, parallel);
+        } finally {
+            SchoolMetrics.record(SchoolMetrics.Operation.RANKING, start);
+        }
     }
 
     public void sortStudents(Comparator<Student> comparator) {
-        if (students != null && comparator != null) {
+        if (comparator == null) {
+            return;
+        }
+        long start = SchoolMetrics.start();
+        long stamp = lock.writeLock();
+        try {
             students.sort(comparator);
+            SortedStudentViews views = sortedViews;
+            if (views != null) {
+                views.reorder(students);
+            }
+            SchoolSnapshotPublisher publisher = snapshots;
+            if (publisher != null) {
+                publisher.reorder(students);
+            }
+            fireStudentsReset();
+        } finally {
+            lock.unlockWrite(stamp);
+            SchoolMetrics.record(SchoolMetrics.Operation.SORT, start);
         }
     }
 
+    // Пошук за префіксом імені або прізвища без урахування регістру, до limit учнів.
+    // Кілька слів ("Ali Smi") - кожне має бути префіксом імені чи прізвища того самого учня
+    public List<Student> searchStudentsByName(String query, int limit) {
+        if (query == null || query.trim().isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long start = SchoolMetrics.start();
+        try {
+            return nameIndex().findByPrefix(query, limit);
+        } finally {
+            SchoolMetrics.record(SchoolMetrics.Operation.NAME_SEARCH, start);
+        }
+    }
+
+    // Нечіткий пошук: ім'я або прізвище відрізняється від name не більше ніж на maxEdits (0-3) вставок,
+    // видалень чи замін символів; спершу найближчі збіги
+    public List<Student> searchStudentsByNameFuzzy(String name, int maxEdits, int limit) {
+        if (maxEdits < 0 || maxEdits > StudentNameIndex.MAX_EDITS) {
+            throw new IllegalArgumentException("maxEdits must be between 0 and " + StudentNameIndex.MAX_EDITS + ".");
+        }
+        if (name == null || name.trim().isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long start = SchoolMetrics.start();
+        try {
+            return nameIndex().findFuzzy(name, maxEdits, limit);
+        } finally {
+            SchoolMetrics.record(SchoolMetrics.Operation.NAME_SEARCH, start);
+        }
+    }
+
+    // Поточна незмінна версія школи: одне volatile-читання, без блокувань. Перший виклик будує знімок
+    // під блокуванням запису; після цього кожна зміна школи чи учня публікує нову версію,
+    // що ділить з попередньою все, крім зміненого шляху в дереві
+    public SchoolSnapshot snapshot() {
+        SchoolSnapshotPublisher publisher = snapshots;
+        SchoolSnapshot snapshot = publisher != null ? publisher.current() : null;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (snapshots == null) {
+                // Поле публікується до заповнення, щоб зміни учнів під час обходу не загубилися
+                publisher = new SchoolSnapshotPublisher(name);
+                snapshots = publisher;
+                for (Student student : students) {
+                    synchronized (student) {
+                        publisher.add(student);
+                    }
+                }
+                publisher.open();
+            }
+            return snapshots.current();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private StudentNameIndex nameIndex() {
+        StudentNameIndex index = nameIndex;
+        if (index != null) {
+            return index;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (nameIndex == null) {
+                index = new StudentNameIndex();
+                nameIndex = index;
+                for (Student student : students) {
+                    synchronized (student) {
+                        index.add(student);
+                    }
+                }
+            }
+            return nameIndex;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Вмикає підтримку відсортованих індексів для всіх StudentOrder: кожна зміна стає O(log n) дорожчою,
+    // зате getStudents(order) і відсортований експорт обходяться без сортування
+    public void enableSortedViews() {
+        long stamp = lock.writeLock();
+        try {
+            if (sortedViews != null) {
+                return;
+            }
+            SortedStudentViews views = new SortedStudentViews();
+            sortedViews = views;
+            for (Student student : students) {
+                synchronized (student) {
+                    views.add(student);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void disableSortedViews() {
+        long stamp = lock.writeLock();
+        try {
+            sortedViews = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean sortedViewsEnabled() {
+        return sortedViews != null;
+    }
+
+    // Слухачі викликаються під блокуванням запису школи або монітором учня,
+    // тож не повинні змінювати школу чи брати блокування, під якими змінюють учнів
+    public void addSchoolListener(SchoolListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeSchoolListener(SchoolListener listener) {
+        listeners.remove(listener);
+    }
+
+
+    // Кількість учнів без копіювання списку
+    int studentCount() {
+        long stamp = lock.readLock();
+        try {
+            return students.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         School school = (School) o;
-        return Objects.equals(name, school.name) && Objects.equals(students, school.students);
+        return Objects.equals(name, school.name) && Objects.equals(getStudents(), school.getStudents());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, students);
+        return Objects.hash(name, getStudents());
     }
 
     @Override
     public String toString() {
         return "School{" +
                 "name='" + name + '\'' +
-                ", numberOfStudents=" + (students != null ? students.size() : 0) +
+                ", numberOfStudents=" + studentCount() +
                 ", schoolAverageGrade=" + String.format("%.2f", calculateSchoolAverageGrade()) +
                 '}';
     }
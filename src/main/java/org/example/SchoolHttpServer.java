@@ -0,0 +1,447 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// JSON API над School на вбудованому HTTP-сервері JDK (com.sun.net.httpserver).
+// Кожен запит обробляється на окремому віртуальному потоці (Java 21+) або на пулі потоків;
+// School потокобезпечна, тож обробники не мають власних блокувань.
+//   GET    /school                              назва, кількість учнів, середній бал
+//   GET    /students?offset=0&limit=50          сторінка списку учнів
+//   POST   /students                            додати учня (201, 409 якщо id зайнятий)
+//   GET    /students/{id}                       учень за id
+//   PUT    /students/{id}                       замінити учня
+//   DELETE /students/{id}                       видалити учня
+//   GET    /students/{id}/average               середній бал учня
+//   PUT    /students/{id}/disciplines           додати/оновити дисципліну {"name", "grade"}
+//                                                (оцінка 1-12; нові назви - лише поки каталог менший за MAX_DISCIPLINE_NAMES)
+//   DELETE /students/{id}/disciplines/{name}    видалити дисципліну
+//   GET    /metrics                             метрики SchoolMetrics
+public class SchoolHttpServer implements AutoCloseable {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+    // Більші тіла запитів відхиляються з 413, не читаючись у пам'ять повністю
+    public static final int MAX_BODY_BYTES = 1 << 20;
+    // DisciplineCatalog глобальний і не зменшується, тож клієнти API не можуть розширювати його без меж:
+    // після цієї кількості назв приймаються лише вже відомі дисципліни
+    public static final int MAX_DISCIPLINE_NAMES = 10_000;
+
+    private static final int BACKLOG = 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final School school;
+    private final ObjectMapper objectMapper;
+    // Компактний JSON: відступи з налаштувань DataService потрібні лише для файлів
+    private final ObjectWriter writer;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public SchoolHttpServer(School school, DataService dataService, int port) throws IOException {
+        if (school == null || dataService == null) {
+            throw new IllegalArgumentException("School and data service cannot be null.");
+        }
+        this.school = school;
+        this.objectMapper = dataService.objectMapper();
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = WorkerThreads.newExecutor(Math.max(16, Runtime.getRuntime().availableProcessors() * 8),
+                "school-http-worker");
+        server.setExecutor(executor);
+        server.createContext("/school", exchange -> handle(exchange, this::routeSchool));
+        server.createContext("/students", exchange -> handle(exchange, this::routeStudents));
+        server.createContext("/metrics", exchange -> handle(exchange, this::routeMetrics));
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("School HTTP API listening on port " + getPort());
+    }
+
+    // Фактичний порт (якщо сервер створено з портом 0)
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface Route {
+        Response route(HttpExchange exchange, String[] path) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            String[] path = pathSegments(exchange);
+            // Контекст приймає будь-який шлях зі своїм префіксом ("/school" - і "/schoolX"),
+            // тож перший сегмент має збігатися з ним точно
+            if (!exchange.getHttpContext().getPath().equals("/" + path[0])) {
+                response = notFound();
+            } else {
+                response = route.route(exchange, path);
+            }
+        } catch (PayloadTooLargeException e) {
+            response = error(413, "Request body exceeds " + MAX_BODY_BYTES + " bytes.");
+        } catch (JsonProcessingException e) {
+            response = error(400, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            response = error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("HTTP " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed: " + e);
+            response = error(500, "Internal server error.");
+        }
+        try (OutputStream body = exchange.getResponseBody()) {
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+            } else {
+                exchange.getResponseHeaders().set("Content-Type", JSON);
+                exchange.sendResponseHeaders(response.status, response.body.length);
+                body.write(response.body);
+            }
+        }
+    }
+
+    private Response routeSchool(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length != 1) {
+            return notFound();
+        }
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            return methodNotAllowed();
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("name", school.getName());
+        summary.put("students", school.studentCount());
+        summary.put("average", school.calculateSchoolAverageGrade());
+        return json(200, summary);
+    }
+
+    private Response routeMetrics(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length != 1) {
+            return notFound();
+        }
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            return methodNotAllowed();
+        }
+        return json(200, SchoolMetrics.instance().getOperations());
+    }
+
+    private Response routeStudents(HttpExchange exchange, String[] path) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (path.length == 1) {
+            switch (method) {
+                case "GET":
+                    return listStudents(exchange);
+                case "POST":
+                    return addStudent(exchange);
+                default:
+                    return methodNotAllowed();
+            }
+        }
+        int id = parseId(path[1]);
+        if (path.length == 2) {
+            switch (method) {
+                case "GET":
+                    return school.getStudentById(id).map(this::student).orElseGet(() -> studentNotFound(id));
+                case "PUT":
+                    return updateStudent(exchange, id);
+                case "DELETE":
+                    return school.removeStudent(id) ? new Response(204, null) : studentNotFound(id);
+                default:
+                    return methodNotAllowed();
+            }
+        }
+        if (path.length == 3 && "average".equals(path[2])) {
+            if (!"GET".equals(method)) {
+                return methodNotAllowed();
+            }
+            Optional<Student> student = school.getStudentById(id);
+            if (!student.isPresent()) {
+                return studentNotFound(id);
+            }
+            Map<String, Object> average = new LinkedHashMap<>();
+            average.put("id", id);
+            average.put("average", student.get().calculateAverageGrade());
+            return json(200, average);
+        }
+        if (path.length == 3 && "disciplines".equals(path[2])) {
+            if (!"PUT".equals(method)) {
+                return methodNotAllowed();
+            }
+            JsonNode body = readTree(exchange);
+            String invalid = body == null ? "Discipline name and grade are required." : checkDiscipline(body);
+            if (invalid != null) {
+                return error(400, invalid);
+            }
+            Discipline discipline = new Discipline(body.get("name").textValue(), body.get("grade").intValue());
+            if (!school.upsertDiscipline(id, discipline)) {
+                return studentNotFound(id);
+            }
+            return school.getStudentById(id).map(this::student).orElseGet(() -> studentNotFound(id));
+        }
+        if (path.length == 4 && "disciplines".equals(path[2])) {
+            if (!"DELETE".equals(method)) {
+                return methodNotAllowed();
+            }
+            if (!school.getStudentById(id).isPresent()) {
+                return studentNotFound(id);
+            }
+            return school.removeDiscipline(id, path[3])
+                    ? new Response(204, null)
+                    : error(404, "Student " + id + " has no discipline '" + path[3] + "'.");
+        }
+        return notFound();
+    }
+
+    private Response listStudents(HttpExchange exchange) throws IOException {
+        Map<String, String> query = queryParameters(exchange);
+        int offset = parseParameter(query, "offset", 0);
+        int limit = Math.min(parseParameter(query, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        List<Student> page = school.getStudents(offset, limit);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + page.size() * 128);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("total", school.studentCount());
+            generator.writeNumberField("offset", offset);
+            generator.writeNumberField("limit", limit);
+            generator.writeArrayFieldStart("students");
+            for (Student student : page) {
+                // Як і в експорті, учень серіалізується під своїм монітором
+                synchronized (student) {
+                    writer.writeValue(generator, student);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return new Response(200, out.toByteArray());
+    }
+
+    private Response addStudent(HttpExchange exchange) throws IOException {
+        Student student = readStudent(exchange);
+        Response invalid = validate(student);
+        if (invalid != null) {
+            return invalid;
+        }
+        if (!school.addStudent(student)) {
+            return error(409, "Student with ID " + student.getId() + " already exists.");
+        }
+        exchange.getResponseHeaders().set("Location", "/students/" + student.getId());
+        Response created = student(student);
+        return new Response(201, created.body);
+    }
+
+    private Response updateStudent(HttpExchange exchange, int id) throws IOException {
+        Student student = readStudent(exchange);
+        if (student != null && student.getId() == 0) {
+            student.setId(id); // id можна не повторювати в тілі
+        }
+        Response invalid = validate(student);
+        if (invalid != null) {
+            return invalid;
+        }
+        if (student.getId() != id) {
+            return error(400, "Student ID in the body does not match the path.");
+        }
+        return school.updateStudent(student) ? student(student) : studentNotFound(id);
+    }
+
+    private static Response validate(Student student) {
+        if (student == null) {
+            return error(400, "Student body is required.");
+        }
+        if (student.getId() <= 0) {
+            return error(400, "Student ID must be positive.");
+        }
+        if (student.getFirstName() == null || student.getLastName() == null) {
+            return error(400, "First name and last name cannot be empty.");
+        }
+        return null;
+    }
+
+    // Дисципліни перевіряються на дереві JSON до десеріалізації: Discipline одразу додає назву до каталогу
+    private Student readStudent(HttpExchange exchange) throws IOException {
+        JsonNode body = readTree(exchange);
+        if (body == null || body.isNull()) {
+            return null;
+        }
+        JsonNode disciplines = body.get("disciplines");
+        if (disciplines != null && !disciplines.isNull()) {
+            if (!disciplines.isArray()) {
+                throw new IllegalArgumentException("Disciplines must be an array.");
+            }
+            for (JsonNode discipline : disciplines) {
+                String invalid = checkDiscipline(discipline);
+                if (invalid != null) {
+                    throw new IllegalArgumentException(invalid);
+                }
+            }
+        }
+        return objectMapper.treeToValue(body, Student.class);
+    }
+
+    // Текст помилки або null, якщо дисципліну можна прийняти
+    private static String checkDiscipline(JsonNode discipline) {
+        JsonNode name = discipline.get("name");
+        JsonNode grade = discipline.get("grade");
+        if (name == null || !name.isTextual() || name.textValue().trim().isEmpty()
+                || grade == null || !grade.isIntegralNumber() || !grade.canConvertToInt()) {
+            return "Discipline name and grade are required.";
+        }
+        if (grade.intValue() < 1 || grade.intValue() > 12) {
+            return "Grade " + grade.intValue() + " for " + name.textValue() + " must be between 1 and 12.";
+        }
+        if (DisciplineCatalog.idOf(name.textValue()) < 0 && DisciplineCatalog.size() >= MAX_DISCIPLINE_NAMES) {
+            return "Unknown discipline '" + name.textValue() + "'.";
+        }
+        return null;
+    }
+
+    private JsonNode readTree(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            // Ліміт перевіряється під час читання: Content-Length може бути відсутнім (chunked) або хибним
+            byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new PayloadTooLargeException();
+            }
+            return bytes.length == 0 ? null : objectMapper.readTree(bytes);
+        }
+    }
+
+    private Response student(Student student) {
+        try {
+            byte[] body;
+            synchronized (student) {
+                body = writer.writeValueAsBytes(student);
+            }
+            return new Response(200, body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize student " + student.getId(), e);
+        }
+    }
+
+    private Response json(int status, Object value) throws JsonProcessingException {
+        return new Response(status, writer.writeValueAsBytes(value));
+    }
+
+    private static Response studentNotFound(int id) {
+        return error(404, "Student with ID " + id + " not found.");
+    }
+
+    private static Response notFound() {
+        return error(404, "Not found.");
+    }
+
+    private static Response methodNotAllowed() {
+        return error(405, "Method not allowed.");
+    }
+
+    // Тексти помилок екрануються вручну, щоб не залежати від стану ObjectMapper
+    private static Response error(int status, String message) {
+        StringBuilder body = new StringBuilder("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') {
+                body.append('\\').append(c);
+            } else if (c < 0x20) {
+                body.append(String.format("\\u%04x", (int) c));
+            } else {
+                body.append(c);
+            }
+        }
+        return new Response(status, body.append("\"}").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Сегменти шляху без контексту ("/students/7/average" -> ["students", "7", "average"]), декодовані окремо,
+    // щоб "/" у назві дисципліни (%2F) не розбивав шлях
+    private static String[] pathSegments(HttpExchange exchange) {
+        String raw = exchange.getRequestURI().getRawPath();
+        String[] segments = raw.replaceAll("^/+|/+$", "").split("/+");
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = URLDecoder.decode(segments[i].replace("+", "%2B"), StandardCharsets.UTF_8);
+        }
+        return segments;
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : raw.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static int parseParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException("Parameter '" + name + "' cannot be negative.");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter '" + name + "' must be an integer.");
+        }
+    }
+
+    private static int parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Student ID must be an integer: " + segment);
+        }
+    }
+
+    private static final class PayloadTooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class Response {
+        private final int status;
+        // null - відповідь без тіла (204)
+        private final byte[] body;
+
+        Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
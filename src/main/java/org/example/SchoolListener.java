@@ -0,0 +1,29 @@
+package org.example;
+
+import java.util.List;
+
+// Слухач змін школи (журнал, автозбереження тощо); усі методи необов'язкові
+public interface SchoolListener {
+    default void studentAdded(Student student) {
+    }
+
+    // Учня замінено (updateStudent) або змінено його ім'я чи весь список дисциплін
+    default void studentUpdated(Student student) {
+    }
+
+    default void studentRemoved(int studentId) {
+    }
+
+    default void disciplineUpserted(Student student, String disciplineName, int grade) {
+    }
+
+    default void disciplineRemoved(Student student, String disciplineName) {
+    }
+
+    default void schoolRenamed(String name) {
+    }
+
+    // Список учнів замінено чи переупорядковано цілком (setStudents, sortStudents); students - копія нового списку
+    default void studentsReset(String schoolName, List<Student> students) {
+    }
+}
@@ -0,0 +1,203 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Вбудовані метрики операцій School і DataService, опубліковані як MXBean org.example:type=SchoolMetrics.
+// Гарячий шлях - без блокувань: LongAdder на лічильники і логарифмічна гістограма затримок
+// (кошик = кількість значущих бітів тривалості в наносекундах). Дуже дешеві читання (пошук за id,
+// середній бал школи) лише рахуються, без System.nanoTime.
+// -Dschool.metrics=false вимикає збір повністю: перевірка - static final, JIT її прибирає.
+public final class SchoolMetrics implements SchoolMetricsMXBean {
+    public static final String OBJECT_NAME = "org.example:type=SchoolMetrics";
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("school.metrics"));
+
+    private static final int BUCKETS = 64;
+    private static final SchoolMetrics INSTANCE = new SchoolMetrics();
+
+    static {
+        if (ENABLED) {
+            INSTANCE.register();
+        }
+    }
+
+    public enum Operation {
+        ADD_STUDENT,
+        ADD_STUDENTS,
+        FIND_STUDENT,
+        UPDATE_STUDENT,
+        REMOVE_STUDENT,
+        UPDATE_GRADES,
+        SCHOOL_AVERAGE,
+        DISCIPLINE_STATISTICS,
+        RANKING,
+        SORT,
+        NAME_SEARCH,
+        JSON_EXPORT,
+        JSON_IMPORT,
+        BINARY_EXPORT,
+        BINARY_IMPORT
+    }
+
+    private final OperationStats[] stats = new OperationStats[Operation.values().length];
+
+    private SchoolMetrics() {
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new OperationStats();
+        }
+    }
+
+    public static SchoolMetrics instance() {
+        return INSTANCE;
+    }
+
+    // Початок вимірювання; 0, якщо метрики вимкнено
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    static void record(Operation operation, long start) {
+        if (ENABLED) {
+            INSTANCE.stats[operation.ordinal()].record(System.nanoTime() - start, 0L, 0L);
+        }
+    }
+
+    // Імпорт/експорт: тривалість разом з обсягом файлу і кількістю учнів
+    static void recordIo(Operation operation, long start, long bytes, long students) {
+        if (ENABLED) {
+            INSTANCE.stats[operation.ordinal()].record(System.nanoTime() - start, bytes, students);
+        }
+    }
+
+    static void count(Operation operation) {
+        if (ENABLED) {
+            INSTANCE.stats[operation.ordinal()].count.increment();
+        }
+    }
+
+    public OperationMetrics snapshot(Operation operation) {
+        return stats[operation.ordinal()].snapshot(operation.name());
+    }
+
+    @Override
+    public List<OperationMetrics> getOperations() {
+        List<OperationMetrics> result = new ArrayList<>(stats.length);
+        for (Operation operation : Operation.values()) {
+            result.add(snapshot(operation));
+        }
+        return result;
+    }
+
+    @Override
+    public long getTotalOperationCount() {
+        long total = 0;
+        for (OperationStats operationStats : stats) {
+            total += operationStats.count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder report = new StringBuilder(String.format("%-22s %10s %12s %12s %12s %12s %14s %12s%n",
+                "operation", "count", "mean, us", "p50, us", "p99, us", "max, us", "bytes", "students/s"));
+        for (OperationMetrics metrics : getOperations()) {
+            if (metrics.getCount() == 0) {
+                continue;
+            }
+            report.append(String.format("%-22s %10d %12.1f %12.1f %12.1f %12.1f %14d %12.0f%n",
+                    metrics.getOperation(), metrics.getCount(), metrics.getMeanMicros(), metrics.getP50Micros(),
+                    metrics.getP99Micros(), metrics.getMaxMicros(), metrics.getBytes(), metrics.getStudentsPerSecond()));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (OperationStats operationStats : stats) {
+            operationStats.reset();
+        }
+    }
+
+    private void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (JMException | SecurityException e) {
+            // Метрики збираються і без JMX; доступні через instance()
+            System.err.println("Could not register " + OBJECT_NAME + ": " + e.getMessage());
+        }
+    }
+
+    private static final class OperationStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder students = new LongAdder();
+        // histogram[b] - кількість вимірів тривалістю [2^(b-1), 2^b) нс
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos, long byteCount, long studentCount) {
+            long duration = Math.max(0L, nanos);
+            count.increment();
+            totalNanos.add(duration);
+            maxNanos.accumulate(duration);
+            histogram.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(duration)); // duration >= 0, тож не більше 63
+            if (byteCount != 0L) {
+                bytes.add(byteCount);
+            }
+            if (studentCount != 0L) {
+                students.add(studentCount);
+            }
+        }
+
+        OperationMetrics snapshot(String name) {
+            long[] buckets = new long[BUCKETS];
+            long timed = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                buckets[b] = histogram.get(b);
+                timed += buckets[b];
+            }
+            return new OperationMetrics(name, count.sum(), totalNanos.sum(), maxNanos.get(),
+                    percentile(buckets, timed, 0.50), percentile(buckets, timed, 0.99), bytes.sum(), students.sum());
+        }
+
+        private static long percentile(long[] buckets, long total, double fraction) {
+            if (total == 0) {
+                return 0L;
+            }
+            long rank = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += buckets[b];
+                if (seen >= rank) {
+                    return b == 0 ? 0L : 1L << Math.min(b, 62);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            bytes.reset();
+            students.reset();
+            for (int b = 0; b < BUCKETS; b++) {
+                histogram.set(b, 0L);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example;
+
+import java.util.List;
+
+// Інтерфейс керування для JMX (jconsole, VisualVM): org.example:type=SchoolMetrics
+public interface SchoolMetricsMXBean {
+    // Лічильники і затримки кожної операції School та імпорту/експорту DataService
+    List<OperationMetrics> getOperations();
+
+    long getTotalOperationCount();
+
+    // Текстовий звіт, як у меню консолі
+    String dump();
+
+    void reset();
+}
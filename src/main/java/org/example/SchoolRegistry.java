@@ -0,0 +1,314 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Реєстр шкіл району. Кожна школа розбита на шарди - окремі School для діапазонів id учнів
+// (id / shardIdRange), тож пошук за id іде одразу в потрібний шард, а агрегати, експорт та імпорт
+// виконуються паралельно по шардах на пулі робочих потоків.
+public class SchoolRegistry implements AutoCloseable {
+    public static final int DEFAULT_SHARD_ID_RANGE = 100_000;
+
+    private static final ConcurrentNavigableMap<Integer, School> EMPTY_SHARDS = new ConcurrentSkipListMap<>();
+
+    private final int shardIdRange;
+    private final ExecutorService workers;
+    private final DataService dataService = new DataService();
+    // Назва школи -> шарди за ключем id / shardIdRange
+    private final ConcurrentMap<String, ConcurrentNavigableMap<Integer, School>> schools = new ConcurrentHashMap<>();
+
+    public SchoolRegistry() {
+        this(DEFAULT_SHARD_ID_RANGE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SchoolRegistry(int shardIdRange, int workerThreads) {
+        if (shardIdRange <= 0 || workerThreads <= 0) {
+            throw new IllegalArgumentException("Shard id range and worker count must be positive.");
+        }
+        this.shardIdRange = shardIdRange;
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "school-registry-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Додає школу, розкладаючи її учнів по шардах. Учні переходять до шардів, тож після виклику school порожня.
+    // Відхилені учні (дублікати id) повертаються в результаті
+    public BatchResult<Student> addSchool(School school) {
+        if (school == null || school.getName() == null) {
+            throw new IllegalArgumentException("School and its name cannot be null.");
+        }
+        ConcurrentNavigableMap<Integer, School> shards = new ConcurrentSkipListMap<>();
+        if (schools.putIfAbsent(school.getName(), shards) != null) {
+            throw new IllegalArgumentException("School '" + school.getName() + "' is already registered.");
+        }
+        return addToShards(school.getName(), shards, detachStudents(school));
+    }
+
+    // Забирає учнів у школи-джерела: інакше її спостерігач лишився б на учнях, що тепер належать шардам,
+    // і кожна їхня зміна оновлювала б і стару школу
+    private static List<Student> detachStudents(School source) {
+        List<Student> students = source.copyOfStudents();
+        source.setStudents(Collections.emptyList());
+        return students;
+    }
+
+    // Учні групуються за шардами і додаються пакетами, по одному блокуванню на шард
+    private BatchResult<Student> addToShards(String schoolName, ConcurrentNavigableMap<Integer, School> shards,
+                                             List<Student> students) {
+        Map<Integer, List<Student>> byShard = new TreeMap<>();
+        for (Student student : students) {
+            byShard.computeIfAbsent(shardKey(student.getId()), key -> new ArrayList<>()).add(student);
+        }
+        BatchResult<Student> result = new BatchResult<>();
+        for (Map.Entry<Integer, List<Student>> group : byShard.entrySet()) {
+            result.merge(shards.computeIfAbsent(group.getKey(), key -> new School(schoolName)).addStudents(group.getValue()));
+        }
+        return result;
+    }
+
+    public boolean removeSchool(String schoolName) {
+        return schools.remove(schoolName) != null;
+    }
+
+    public boolean containsSchool(String schoolName) {
+        return schools.containsKey(schoolName);
+    }
+
+    public Set<String> getSchoolNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(schools.keySet()));
+    }
+
+    public int shardCount(String schoolName) {
+        ConcurrentNavigableMap<Integer, School> shards = schools.get(schoolName);
+        return shards == null ? 0 : shards.size();
+    }
+
+    // Маршрутизація за id: усі операції з учнем торкаються лише одного шарду
+    public boolean addStudent(String schoolName, Student student) {
+        ConcurrentNavigableMap<Integer, School> shards = schools.get(schoolName);
+        if (shards == null || student == null) {
+            return false;
+        }
+        return shardFor(schoolName, shards, student.getId()).addStudent(student);
+    }
+
+    public Optional<Student> getStudentById(String schoolName, int id) {
+        School shard = existingShard(schoolName, id);
+        return shard == null ? Optional.empty() : shard.getStudentById(id);
+    }
+
+    public boolean updateStudent(String schoolName, Student student) {
+        School shard = student == null ? null : existingShard(schoolName, student.getId());
+        return shard != null && shard.updateStudent(student);
+    }
+
+    public boolean removeStudent(String schoolName, int id) {
+        School shard = existingShard(schoolName, id);
+        return shard != null && shard.removeStudent(id);
+    }
+
+    // Усі учні школи, шард за шардом у порядку діапазонів id
+    public List<Student> getStudents(String schoolName) {
+        ConcurrentNavigableMap<Integer, School> shards = schools.get(schoolName);
+        if (shards == null) {
+            return Collections.emptyList();
+        }
+        List<Student> students = new ArrayList<>();
+        for (School shard : shards.values()) {
+            students.addAll(shard.copyOfStudents());
+        }
+        return Collections.unmodifiableList(students);
+    }
+
+    public double calculateSchoolAverageGrade(String schoolName) {
+        ConcurrentNavigableMap<Integer, School> shards = schools.get(schoolName);
+        if (shards == null) {
+            return 0.0;
+        }
+        GradeAggregate total = new GradeAggregate();
+        for (School shard : shards.values()) {
+            total.merge(shard.gradeAggregateSnapshot());
+        }
+        return total.average();
+    }
+
+    // Середнє серед усіх учнів з оцінками в усіх школах
+    public double calculateDistrictAverageGrade() {
+        GradeAggregate total = new GradeAggregate();
+        for (GradeAggregate part : compute(allShards(), School::gradeAggregateSnapshot)) {
+            total.merge(part);
+        }
+        return total.average();
+    }
+
+    // Статистика дисциплін по всьому району: кожен шард рахується на своєму потоці, потім лічильники зливаються
+    public Map<String, DisciplineStatistics> calculateDisciplineStatistics() {
+        DisciplineStatisticsCollector total = new DisciplineStatisticsCollector();
+        for (DisciplineStatisticsCollector part : compute(allShards(),
+                shard -> DisciplineStatisticsCollector.of(shard.copyOfStudents()))) {
+            total.merge(part);
+        }
+        return total.toReport();
+    }
+
+    // Кожен шард пишеться в окремий файл "<школа>.shard-<ключ><розширення>" паралельно
+    public void exportAll(Path directory, DataFormat format) throws IOException {
+        Files.createDirectories(directory);
+        Set<String> usedStems = new HashSet<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String schoolName : getSchoolNames()) {
+            String stem = fileStem(schoolName);
+            for (int copy = 2; !usedStems.add(stem); copy++) {
+                stem = fileStem(schoolName) + "-" + copy; // Різні назви можуть дати однакове ім'я файлу
+            }
+            for (Map.Entry<Integer, School> shard : schools.getOrDefault(schoolName, EMPTY_SHARDS).entrySet()) {
+                Path file = directory.resolve(stem + ".shard-" + shard.getKey() + format.getExtension());
+                School shardSchool = shard.getValue();
+                tasks.add(() -> {
+                    dataService.exportSchool(shardSchool, file.toString(), null);
+                    return null;
+                });
+            }
+        }
+        runOnWorkers(tasks);
+    }
+
+    // Паралельно читає всі .json і .bin файли каталогу і додає їхніх учнів до шкіл з відповідними назвами.
+    // Учні, чиї id уже є в шардах, повертаються як відхилені
+    public BatchResult<Student> importAll(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString().toLowerCase();
+                        return name.endsWith(DataFormat.JSON.getExtension()) || name.endsWith(DataFormat.BINARY.getExtension());
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        List<Callable<School>> tasks = new ArrayList<>();
+        for (Path file : files) {
+            tasks.add(() -> dataService.importSchool(file.toString()));
+        }
+        BatchResult<Student> result = new BatchResult<>();
+        for (School imported : runOnWorkers(tasks)) {
+            result.merge(merge(imported));
+        }
+        return result;
+    }
+
+    private BatchResult<Student> merge(School imported) {
+        if (imported.getName() == null) {
+            throw new IllegalArgumentException("Imported school has no name.");
+        }
+        ConcurrentNavigableMap<Integer, School> shards =
+                schools.computeIfAbsent(imported.getName(), name -> new ConcurrentSkipListMap<>());
+        List<Student> students = imported.getStudents();
+        // Файл одного шарду (як після exportAll) стає шардом цілком, без перенесення учнів по одному
+        if (!students.isEmpty()) {
+            int key = shardKey(students.get(0).getId());
+            boolean singleShard = students.stream().allMatch(student -> shardKey(student.getId()) == key);
+            if (singleShard && shards.putIfAbsent(key, imported) == null) {
+                BatchResult<Student> result = new BatchResult<>();
+                for (int i = 0; i < students.size(); i++) {
+                    result.accept();
+                }
+                return result;
+            }
+        }
+        return addToShards(imported.getName(), shards, detachStudents(imported));
+    }
+
+    private School shardFor(String schoolName, ConcurrentNavigableMap<Integer, School> shards, int studentId) {
+        return shards.computeIfAbsent(shardKey(studentId), key -> new School(schoolName));
+    }
+
+    private School existingShard(String schoolName, int studentId) {
+        ConcurrentNavigableMap<Integer, School> shards = schools.get(schoolName);
+        return shards == null ? null : shards.get(shardKey(studentId));
+    }
+
+    private int shardKey(int studentId) {
+        return Math.floorDiv(studentId, shardIdRange);
+    }
+
+    private List<School> allShards() {
+        List<School> shards = new ArrayList<>();
+        for (ConcurrentNavigableMap<Integer, School> schoolShards : schools.values()) {
+            shards.addAll(schoolShards.values());
+        }
+        return shards;
+    }
+
+    private interface ShardFunction<T> {
+        T apply(School shard);
+    }
+
+    private <T> List<T> compute(List<School> shards, ShardFunction<T> function) {
+        List<Callable<T>> tasks = new ArrayList<>(shards.size());
+        for (School shard : shards) {
+            tasks.add(() -> function.apply(shard));
+        }
+        try {
+            return runOnWorkers(tasks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Без вводу-виводу це можливо лише при перериванні
+        }
+    }
+
+    private <T> List<T> runOnWorkers(List<Callable<T>> tasks) throws IOException {
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : workers.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for registry workers.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Registry worker failed.", cause);
+        }
+    }
+
+    private static String fileStem(String schoolName) {
+        String stem = schoolName.trim().replaceAll("[^\\p{L}\\p{N}_-]+", "_");
+        return stem.isEmpty() ? "school" : stem;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+}
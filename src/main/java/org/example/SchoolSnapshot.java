@@ -0,0 +1,118 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Незмінна версія школи (див. School.snapshot()). Учні - заморожені копії на момент версії:
+// їх можна читати з будь-яких потоків без блокувань, а спроба змінити кидає UnsupportedOperationException.
+// Знімок не змінюється, поки школу оновлюють інші потоки, тож довгі експорти і звіти бачать
+// узгоджений стан усієї школи.
+public final class SchoolSnapshot implements Iterable<Student> {
+    private final String name;
+    private final long version;
+    private final PersistentStudentVector students;
+    private final int studentCount;
+    // Список для API, що приймають List; будується один раз при першому запиті
+    private volatile List<Student> studentList;
+
+    SchoolSnapshot(String name, long version, PersistentStudentVector students, int studentCount) {
+        this.name = name;
+        this.version = version;
+        this.students = students;
+        this.studentCount = studentCount;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // Зростає з кожною зміною школи; однакова версія - той самий стан
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return studentCount;
+    }
+
+    public boolean isEmpty() {
+        return studentCount == 0;
+    }
+
+    // Обхід без копіювання: лист дерева за листом, видалені учні пропускаються
+    @Override
+    public Iterator<Student> iterator() {
+        return new Iterator<Student>() {
+            private int index;
+            private Object[] leaf;
+            private Student next = advance();
+
+            private Student advance() {
+                while (index < students.size()) {
+                    if (leaf == null || (index & PersistentStudentVector.MASK) == 0) {
+                        leaf = students.leafFor(index);
+                    }
+                    Student student = (Student) leaf[index & PersistentStudentVector.MASK];
+                    index++;
+                    if (student != null) {
+                        return student;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Student next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Student current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    public List<Student> students() {
+        List<Student> list = studentList;
+        if (list == null) {
+            List<Student> copy = new ArrayList<>(studentCount);
+            for (Student student : this) {
+                copy.add(student);
+            }
+            list = Collections.unmodifiableList(copy);
+            studentList = list;
+        }
+        return list;
+    }
+
+    public double calculateSchoolAverageGrade() {
+        GradeAggregate aggregate = new GradeAggregate();
+        for (Student student : this) {
+            aggregate.include(student.gradeSum(), student.disciplineCount());
+        }
+        return aggregate.average();
+    }
+
+    public Map<String, DisciplineStatistics> calculateDisciplineStatistics() {
+        return DisciplineStatisticsCollector.collect(students(), false);
+    }
+
+    @Override
+    public String toString() {
+        return "SchoolSnapshot{" +
+                "name='" + name + '\'' +
+                ", version=" + version +
+                ", numberOfStudents=" + studentCount +
+                '}';
+    }
+}
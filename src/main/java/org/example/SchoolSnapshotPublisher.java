@@ -0,0 +1,135 @@
+package org.example;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Підтримує поточний SchoolSnapshot школи: кожна зміна дає нову версію PersistentStudentVector
+// зі спільною з попередньою структурою і публікується одним volatile-записом.
+// Заморожена копія учня робиться до входу в монітор видавця (викликач тримає монітор учня),
+// тож цей монітор - листовий: під ним не беруться монітори учнів.
+// Видалений учень лишає порожню комірку, щоб позиції інших не зсувалися; коли порожніх більше
+// половини, вектор перебудовується.
+class SchoolSnapshotPublisher {
+    private static final int MIN_COMPACTION_HOLES = 32;
+
+    // Позиція живого учня у векторі
+    private final Map<Student, Integer> slots = new IdentityHashMap<>();
+    private PersistentStudentVector vector = PersistentStudentVector.EMPTY;
+    private int holes;
+    private String name;
+    private long version;
+    // null, поки школа не передала всіх учнів (див. School.snapshot())
+    private volatile SchoolSnapshot current;
+
+    SchoolSnapshotPublisher(String name) {
+        this.name = name;
+    }
+
+    SchoolSnapshot current() {
+        return current;
+    }
+
+    // Перша публікація після початкового заповнення
+    synchronized void open() {
+        publish();
+    }
+
+    // Викликається під монітором учня
+    void add(Student student) {
+        Student copy = student.frozenCopy();
+        synchronized (this) {
+            Integer slot = slots.get(student);
+            if (slot != null) {
+                vector = vector.with(slot, copy);
+            } else {
+                slots.put(student, vector.size());
+                vector = vector.append(copy);
+            }
+            publishIfOpen();
+        }
+    }
+
+    // Викликається під монітором учня; учні, яких немає у знімку (ще або вже), ігноруються
+    void update(Student student) {
+        Student copy = student.frozenCopy();
+        synchronized (this) {
+            Integer slot = slots.get(student);
+            if (slot == null) {
+                return;
+            }
+            vector = vector.with(slot, copy);
+            publishIfOpen();
+        }
+    }
+
+    synchronized void remove(Student student) {
+        Integer slot = slots.remove(student);
+        if (slot == null) {
+            return;
+        }
+        vector = vector.with(slot, null);
+        holes++;
+        if (holes >= MIN_COMPACTION_HOLES && holes * 2 > vector.size()) {
+            compact(null);
+        }
+        publishIfOpen();
+    }
+
+    // Новий порядок тих самих учнів (School.sortStudents): копії вже актуальні, тож лише переставляються
+    synchronized void reorder(List<Student> ordered) {
+        compact(ordered);
+        publishIfOpen();
+    }
+
+    synchronized void clear() {
+        slots.clear();
+        vector = PersistentStudentVector.EMPTY;
+        holes = 0;
+        publishIfOpen();
+    }
+
+    synchronized void rename(String newName) {
+        name = newName;
+        publishIfOpen();
+    }
+
+    // Перебудова без порожніх комірок у порядку ordered (або в поточному, якщо null)
+    private void compact(List<Student> ordered) {
+        Student[] owners = new Student[vector.size()];
+        for (Map.Entry<Student, Integer> entry : slots.entrySet()) {
+            owners[entry.getValue()] = entry.getKey();
+        }
+        PersistentStudentVector rebuilt = PersistentStudentVector.EMPTY;
+        if (ordered == null) {
+            for (int i = 0; i < owners.length; i++) {
+                if (owners[i] != null) {
+                    slots.put(owners[i], rebuilt.size());
+                    rebuilt = rebuilt.append(vector.get(i));
+                }
+            }
+        } else {
+            for (Student student : ordered) {
+                Integer slot = slots.get(student);
+                if (slot != null && owners[slot] == student) {
+                    owners[slot] = null; // Дублікат у списку не потрапляє у знімок двічі
+                    slots.put(student, rebuilt.size());
+                    rebuilt = rebuilt.append(vector.get(slot));
+                }
+            }
+        }
+        vector = rebuilt;
+        holes = 0;
+    }
+
+    private void publishIfOpen() {
+        if (current != null) {
+            publish();
+        }
+    }
+
+    private void publish() {
+        version++;
+        current = new SchoolSnapshot(name, version, vector, slots.size());
+    }
+}
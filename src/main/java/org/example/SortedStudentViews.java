@@ -0,0 +1,188 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.StampedLock;
+
+// Живі відсортовані індекси учнів для кожного StudentOrder.
+// Ключі копіюються в Entry під час додавання, тож порівняння не читає учнів і не бере їхніх моніторів;
+// School прибирає учня до зміни і додає після неї (хуки before/after). Власне блокування - листове.
+// Однакові ключі впорядковуються за позицією учня у списку школи, як при стабільному сортуванні списку:
+// позиція - номер, виданий при першому додаванні; він зберігається через зміни учня
+// і перепризначається, коли School переставляє список (reorder).
+class SortedStudentViews {
+    private static final Comparator<Entry> BY_ID = Comparator
+            .comparingInt((Entry entry) -> entry.id)
+            .thenComparingLong(entry -> entry.position);
+    private static final Comparator<Entry> BY_NAME = Comparator
+            .comparing((Entry entry) -> entry.lastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(entry -> entry.firstName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(entry -> entry.position);
+    private static final Comparator<Entry> BY_AVERAGE_DESC = Comparator
+            .comparingDouble((Entry entry) -> entry.average).reversed()
+            .thenComparingLong(entry -> entry.position);
+
+    private final NavigableSet<Entry> byId = new TreeSet<>(BY_ID);
+    private final NavigableSet<Entry> byName = new TreeSet<>(BY_NAME);
+    private final NavigableSet<Entry> byAverage = new TreeSet<>(BY_AVERAGE_DESC);
+    // Поточний запис кожного учня (за ідентичністю: у файлі можуть бути дублікати id)
+    private final Map<Student, Entry> entries = new IdentityHashMap<>();
+    // Позиція кожного учня школи, зокрема того, чий запис прибрано на час зміни
+    private final Map<Student, Long> positions = new IdentityHashMap<>();
+    private final StampedLock lock = new StampedLock();
+    private long nextPosition;
+
+    // Викликається під монітором учня, щоб ключі були узгоджені між собою
+    void add(Student student) {
+        double average = student.calculateAverageGrade();
+        long stamp = lock.writeLock();
+        try {
+            removeEntry(student); // Повторне додавання замінює старий запис
+            Long position = positions.get(student);
+            if (position == null) {
+                position = nextPosition++;
+                positions.put(student, position);
+            }
+            addEntry(new Entry(student, average, position));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Учень змінюється: запис прибирається до add() після зміни, позиція лишається
+    void beforeChange(Student student) {
+        long stamp = lock.writeLock();
+        try {
+            removeEntry(student);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Учень залишає школу
+    void remove(Student student) {
+        long stamp = lock.writeLock();
+        try {
+            removeEntry(student);
+            positions.remove(student);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Новий порядок списку школи (School.sortStudents): позиції видаються заново, ключі не змінюються
+    void reorder(List<Student> ordered) {
+        long stamp = lock.writeLock();
+        try {
+            List<Entry> reordered = new ArrayList<>(entries.size());
+            positions.clear();
+            nextPosition = 0;
+            for (Student student : ordered) {
+                long position = nextPosition++;
+                positions.put(student, position);
+                Entry entry = entries.get(student);
+                if (entry != null) {
+                    reordered.add(new Entry(entry, position));
+                }
+            }
+            entries.clear();
+            byId.clear();
+            byName.clear();
+            byAverage.clear();
+            for (Entry entry : reordered) {
+                addEntry(entry);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void clear() {
+        long stamp = lock.writeLock();
+        try {
+            entries.clear();
+            positions.clear();
+            byId.clear();
+            byName.clear();
+            byAverage.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Обхід дерева за O(n), без сортування
+    List<Student> ordered(StudentOrder order) {
+        long stamp = lock.readLock();
+        try {
+            NavigableSet<Entry> view = viewOf(order);
+            List<Student> result = new ArrayList<>(view.size());
+            for (Entry entry : view) {
+                result.add(entry.student);
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private NavigableSet<Entry> viewOf(StudentOrder order) {
+        switch (order) {
+            case BY_NAME:
+                return byName;
+            case BY_AVERAGE_DESC:
+                return byAverage;
+            case BY_ID:
+            default:
+                return byId;
+        }
+    }
+
+    private void addEntry(Entry entry) {
+        entries.put(entry.student, entry);
+        byId.add(entry);
+        byName.add(entry);
+        byAverage.add(entry);
+    }
+
+    private void removeEntry(Student student) {
+        Entry entry = entries.remove(student);
+        if (entry != null) {
+            byId.remove(entry);
+            byName.remove(entry);
+            byAverage.remove(entry);
+        }
+    }
+
+    private static final class Entry {
+        final Student student;
+        final int id;
+        final String firstName;
+        final String lastName;
+        final double average;
+        // Позиція у списку школи: упорядковує учнів з однаковими ключами
+        final long position;
+
+        Entry(Student student, double average, long position) {
+            this.student = student;
+            this.id = student.getId();
+            this.firstName = student.getFirstName() != null ? student.getFirstName() : "";
+            this.lastName = student.getLastName() != null ? student.getLastName() : "";
+            this.average = average;
+            this.position = position;
+        }
+
+        Entry(Entry source, long position) {
+            this.student = source.student;
+            this.id = source.id;
+            this.firstName = source.firstName;
+            this.lastName = source.lastName;
+            this.average = source.average;
+            this.position = position;
+        }
+    }
+}
@@ -1,19 +1,42 @@
 package org.example;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
+// Потокобезпечний: дисципліни змінюються та читаються під монітором учня, тож конкурентні
+// оновлення оцінок різних учнів не блокують одне одного.
+// Спостерігачі викликаються під цим монітором і не повинні брати блокування School.
 public class Student {
-    private int id;
-    private String firstName;
-    private String lastName;
-    private List<Discipline> disciplines;
+    private volatile int id;
+    private volatile String firstName;
+    private volatile String lastName;
+    // Дисципліни у порядку додавання (і порядку з JSON); Discipline створюються лише на межі API
+    private int[] nameIds = NO_NAME_IDS;
+    private byte[] grades = NO_GRADES;
+    // Оцінки, що не вміщуються в byte (поза 1-12 Discipline лише попереджає), переводять учня на int[];
+    // тоді grades не використовується
+    private int[] wideGrades;
+    private int disciplineCount;
+    private int[] slotTable; // null, поки дисциплін не більше LINEAR_SCAN_LIMIT
+    // Спостерігачі (школи, що містять учня); не серіалізуються, бо не мають гетера
+    private StudentObserver[] observers = NO_OBSERVERS;
+    // Кеші для читання без алокацій; скидаються при кожній зміні дисциплін
+    private double averageGrade;
+    private boolean averageValid;
+    private List<Discipline> disciplinesView;
+    // Незмінна копія для знімків школи (SchoolSnapshot): будь-яка зміна кидає виняток
+    private boolean frozen;
+
+    private static final StudentObserver[] NO_OBSERVERS = new StudentObserver[0];
+    private static final int[] NO_NAME_IDS = new int[0];
+    private static final byte[] NO_GRADES = new byte[0];
+    private static final int LINEAR_SCAN_LIMIT = 8;
 
     public Student() {
-        this.disciplines = new ArrayList<>();
     }
 
     public Student(int id, String firstName, String lastName) {
@@ -26,7 +49,16 @@ public class Student {
         this.id = id;
         this.firstName = firstName;
         this.lastName = lastName;
-        this.disciplines = new ArrayList<>();
+    }
+
+    // Учень з бінарного знімка чи журналу: без перевірок конструктора, як і при десеріалізації Jackson,
+    // тож запис без "id" (id 0) переживає збереження і відновлення
+    static Student restore(int id, String firstName, String lastName) {
+        Student student = new Student();
+        student.id = id;
+        student.firstName = firstName;
+        student.lastName = lastName;
+        return student;
     }
 
     public int getId() {
@@ -41,72 +73,390 @@ public class Student {
         return lastName;
     }
 
-    public List<Discipline> getDisciplines() {
-        return new ArrayList<>(disciplines);
+    // Змінна копія: її можна змінювати, не зачіпаючи учня (див. також disciplinesView і forEachDiscipline)
+    public synchronized List<Discipline> getDisciplines() {
+        List<Discipline> result = new ArrayList<>(disciplineCount);
+        for (int i = 0; i < disciplineCount; i++) {
+            result.add(new Discipline(nameIds[i], gradeAt(i)));
+        }
+        return result;
+    }
+
+    // Незмінний список дисциплін на момент виклику; поки учень не змінюється, повертається той самий
+    // екземпляр, тож повторні читання не створюють об'єктів. Не гетер у розумінні Jackson
+    public synchronized List<Discipline> disciplinesView() {
+        List<Discipline> view = disciplinesView;
+        if (view == null) {
+            Discipline[] items = new Discipline[disciplineCount];
+            for (int i = 0; i < disciplineCount; i++) {
+                items[i] = Discipline.readOnly(nameIds[i], gradeAt(i));
+            }
+            view = Collections.unmodifiableList(Arrays.asList(items));
+            disciplinesView = view;
+        }
+        return view;
+    }
+
+    // Обхід дисциплін у порядку додавання без жодних алокацій
+    public synchronized void forEachDiscipline(DisciplineVisitor visitor) {
+        for (int i = 0; i < disciplineCount; i++) {
+            visitor.visit(DisciplineCatalog.nameOf(nameIds[i]), gradeAt(i));
+        }
     }
 
-    public void setId(int id) {
+    // id - ключ індексів школи і записів журналу, тож учню, що вже належить школі, його не змінюють:
+    // учня видаляють зі школи, змінюють id і додають знову
+    public synchronized void setId(int id) {
+        checkMutable();
         if (id <= 0) {
             throw new IllegalArgumentException("Student ID must be positive.");
         }
+        if (id != this.id && observers.length > 0) {
+            throw new IllegalStateException("Cannot change the ID of student " + this.id + " while it belongs to a school.");
+        }
         this.id = id;
     }
 
-    public void setFirstName(String firstName) {
+    public synchronized void setFirstName(String firstName) {
+        checkMutable();
         if (firstName == null || firstName.trim().isEmpty()) {
             throw new IllegalArgumentException("First name cannot be empty.");
         }
+        fireBeforeChange();
         this.firstName = firstName;
+        fireAfterChange();
+        fireDetailsChanged();
     }
 
-    public void setLastName(String lastName) {
+    public synchronized void setLastName(String lastName) {
+        checkMutable();
         if (lastName == null || lastName.trim().isEmpty()) {
             throw new IllegalArgumentException("Last name cannot be empty.");
         }
+        fireBeforeChange();
         this.lastName = lastName;
+        fireAfterChange();
+        fireDetailsChanged();
     }
 
-    public void setDisciplines(List<Discipline> disciplines) {
-        this.disciplines = new ArrayList<>(disciplines); // Створюємо копію
+    public synchronized void setDisciplines(List<Discipline> disciplines) {
+        checkMutable();
+        Student copy = new Student(); // Збираємо копію окремо, щоб спостерігачі бачили лише старий і новий стан
+        for (Discipline discipline : disciplines) {
+            if (discipline != null) {
+                // Повтори з тією ж назвою зливаються: позиція першого, оцінка останнього
+                copy.upsert(discipline.nameId(), discipline.getGrade());
+            }
+        }
+        fireBeforeChange();
+        this.nameIds = copy.nameIds;
+        this.grades = copy.grades;
+        this.wideGrades = copy.wideGrades;
+        this.disciplineCount = copy.disciplineCount;
+        this.slotTable = copy.slotTable;
+        invalidateCaches();
+        fireAfterChange();
+        fireDetailsChanged();
     }
 
-    public void addOrUpdateDiscipline(Discipline discipline) {
+    public synchronized void addOrUpdateDiscipline(Discipline discipline) {
         if (discipline == null) {
             System.err.println("Cannot add a null discipline.");
             return;
         }
-        Optional<Discipline> existing = disciplines.stream()
-                .filter(d -> d.getName().equalsIgnoreCase(discipline.getName()))
-                .findFirst();
+        if (discipline.nameId() < 0) {
+            throw new IllegalArgumentException("Discipline name cannot be empty.");
+        }
+        upsertDiscipline(discipline.nameId(), discipline.getGrade());
+    }
 
-        if (existing.isPresent()) {
-            existing.get().setGrade(discipline.getGrade());
-        } else {
-            disciplines.add(discipline);
+    // Пакетне додавання/оновлення: усі коректні дисципліни застосовуються за одну зміну учня
+    // (спостерігачі бачать один перерахунок), некоректні повертаються в результаті без виводу в консоль
+    public synchronized BatchResult<Discipline> addOrUpdateDisciplines(Collection<Discipline> disciplines) {
+        checkMutable();
+        BatchResult<Discipline> result = new BatchResult<>();
+        if (disciplines == null || disciplines.isEmpty()) {
+            return result;
+        }
+        int[] acceptedNameIds = new int[disciplines.size()];
+        int[] acceptedGrades = new int[disciplines.size()];
+        int accepted = 0;
+        for (Discipline discipline : disciplines) {
+            if (discipline == null) {
+                result.reject(null, "Discipline cannot be null.");
+            } else if (discipline.nameId() < 0) {
+                result.reject(discipline, "Discipline name cannot be empty.");
+            } else {
+                acceptedNameIds[accepted] = discipline.nameId();
+                acceptedGrades[accepted] = discipline.getGrade();
+                accepted++;
+                result.accept();
+            }
+        }
+        if (accepted == 0) {
+            return result;
         }
+        fireBeforeChange();
+        for (int i = 0; i < accepted; i++) {
+            upsert(acceptedNameIds[i], acceptedGrades[i]);
+        }
+        fireAfterChange();
+        for (int i = 0; i < accepted; i++) {
+            for (StudentObserver observer : observers) {
+                observer.disciplineUpserted(this, acceptedNameIds[i], acceptedGrades[i]);
+            }
+        }
+        return result;
     }
 
-    public boolean removeDiscipline(String disciplineName) {
+    public synchronized boolean removeDiscipline(String disciplineName) {
+        checkMutable();
         if (disciplineName == null || disciplineName.trim().isEmpty()) {
             return false;
         }
-        return disciplines.removeIf(d -> d.getName().equalsIgnoreCase(disciplineName));
+        int keyId = DisciplineCatalog.idOf(Discipline.normalizeName(disciplineName));
+        int slot = keyId < 0 ? -1 : findSlot(keyId);
+        if (slot < 0) {
+            return false;
+        }
+        int removedNameId = nameIds[slot];
+        fireBeforeChange();
+        // Зсуваємо хвіст, щоб зберегти порядок дисциплін
+        int tail = disciplineCount - slot - 1;
+        System.arraycopy(nameIds, slot + 1, nameIds, slot, tail);
+        if (wideGrades != null) {
+            System.arraycopy(wideGrades, slot + 1, wideGrades, slot, tail);
+        } else {
+            System.arraycopy(grades, slot + 1, grades, slot, tail);
+        }
+        disciplineCount--;
+        rebuildSlotTable();
+        invalidateCaches();
+        fireAfterChange();
+        for (StudentObserver observer : observers) {
+            observer.disciplineRemoved(this, removedNameId);
+        }
+        return true;
     }
 
-    public double calculateAverageGrade() {
-        if (disciplines == null || disciplines.isEmpty()) {
-            return 0.0;
+    // Кешується до наступної зміни дисциплін: сортування і рейтинги за середнім балом читають його часто
+    public synchronized double calculateAverageGrade() {
+        if (!averageValid) {
+            long sum = gradeSum();
+            averageGrade = disciplineCount == 0 ? 0.0 : (double) sum / disciplineCount;
+            averageValid = true;
         }
-        List<Discipline> gradedDisciplines = disciplines.stream().collect(Collectors.toList());
+        return averageGrade;
+    }
+
+    public synchronized int disciplineCount() {
+        return disciplineCount;
+    }
+
+    // Ціла сума оцінок для точного середнього по школі (GradeAggregate)
+    synchronized long gradeSum() {
+        long sum = 0;
+        for (int i = 0; i < disciplineCount; i++) {
+            sum += gradeAt(i);
+        }
+        return sum;
+    }
+
+    // Прямий доступ до сховища для бінарного формату, без створення Discipline
+    synchronized int disciplineNameIdAt(int index) {
+        return nameIds[index];
+    }
 
-        if (gradedDisciplines.isEmpty()) {
-            return 0.0;
+    synchronized int disciplineGradeAt(int index) {
+        return gradeAt(index);
+    }
+
+    // Оцінка з дисципліни за id нормалізованої назви (DisciplineCatalog.keyOf) або missing, якщо її немає
+    synchronized int gradeOfKey(int keyId, int missing) {
+        int slot = findSlot(keyId);
+        return slot < 0 ? missing : gradeAt(slot);
+    }
+
+    synchronized void upsertDiscipline(int nameId, int grade) {
+        checkMutable();
+        checkDiscipline(nameId); // Некоректна зміна відхиляється до повідомлення спостерігачів
+        fireBeforeChange();
+        upsert(nameId, grade);
+        fireAfterChange();
+        for (StudentObserver observer : observers) {
+            observer.disciplineUpserted(this, nameId, grade);
         }
+    }
+
+    // Сховище дисциплін: паралельні масиви id назв (DisciplineCatalog) та оцінок у byte
+    // (або в int, якщо якась оцінка не вміщується в byte).
+    // Для невеликої кількості дисциплін пошук - лінійний прохід по int[];
+    // для більшої будується хеш-таблиця keyId -> позиція
 
-        double sum = gradedDisciplines.stream()
-                .mapToInt(Discipline::getGrade)
-                .sum();
-        return sum / gradedDisciplines.size();
+    private void upsert(int nameId, int grade) {
+        checkDiscipline(nameId);
+        invalidateCaches();
+        int slot = findSlot(DisciplineCatalog.keyOf(nameId));
+        if (slot >= 0) {
+            storeGrade(slot, grade);
+            return;
+        }
+        if (disciplineCount == nameIds.length) {
+            int capacity = Math.max(4, disciplineCount * 2);
+            nameIds = Arrays.copyOf(nameIds, capacity);
+            if (wideGrades != null) {
+                wideGrades = Arrays.copyOf(wideGrades, capacity);
+            } else {
+                grades = Arrays.copyOf(grades, capacity);
+            }
+        }
+        nameIds[disciplineCount] = nameId;
+        storeGrade(disciplineCount, grade);
+        disciplineCount++;
+        if (slotTable != null && disciplineCount * 2 <= slotTable.length) {
+            insertSlot(slotTable, DisciplineCatalog.keyOf(nameId), disciplineCount - 1);
+        } else {
+            rebuildSlotTable();
+        }
+    }
+
+    private int gradeAt(int slot) {
+        return wideGrades != null ? wideGrades[slot] : grades[slot];
+    }
+
+    private void storeGrade(int slot, int grade) {
+        if (wideGrades == null) {
+            if (grade == (byte) grade) {
+                grades[slot] = (byte) grade;
+                return;
+            }
+            wideGrades = new int[nameIds.length];
+            for (int i = 0; i < disciplineCount; i++) {
+                wideGrades[i] = grades[i];
+            }
+            grades = NO_GRADES;
+        }
+        wideGrades[slot] = grade;
+    }
+
+    private int findSlot(int keyId) {
+        if (slotTable == null) {
+            for (int i = 0; i < disciplineCount; i++) {
+                if (DisciplineCatalog.keyOf(nameIds[i]) == keyId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = slotTable.length - 1;
+        for (int probe = mixKey(keyId) & mask; slotTable[probe] != 0; probe = (probe + 1) & mask) {
+            int slot = slotTable[probe] - 1;
+            if (DisciplineCatalog.keyOf(nameIds[slot]) == keyId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void rebuildSlotTable() {
+        if (disciplineCount <= LINEAR_SCAN_LIMIT) {
+            slotTable = null;
+            return;
+        }
+        int capacity = Integer.highestOneBit(disciplineCount * 4 - 1);
+        int[] table = new int[capacity];
+        for (int i = 0; i < disciplineCount; i++) {
+            insertSlot(table, DisciplineCatalog.keyOf(nameIds[i]), i);
+        }
+        slotTable = table;
+    }
+
+    // Значення в таблиці - позиція + 1, щоб 0 означав порожню комірку
+    private static void insertSlot(int[] table, int keyId, int slot) {
+        int mask = table.length - 1;
+        int probe = mixKey(keyId) & mask;
+        while (table[probe] != 0) {
+            probe = (probe + 1) & mask;
+        }
+        table[probe] = slot + 1;
+    }
+
+    private static int mixKey(int keyId) {
+        int h = keyId * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static void checkDiscipline(int nameId) {
+        if (nameId < 0) {
+            throw new IllegalArgumentException("Discipline name cannot be empty.");
+        }
+    }
+
+    // Копія поточного стану без спостерігачів; масиви обрізаються до фактичної кількості дисциплін
+    synchronized Student frozenCopy() {
+        Student copy = new Student();
+        copy.id = id;
+        copy.firstName = firstName;
+        copy.lastName = lastName;
+        if (disciplineCount > 0) {
+            copy.nameIds = Arrays.copyOf(nameIds, disciplineCount);
+            if (wideGrades != null) {
+                copy.wideGrades = Arrays.copyOf(wideGrades, disciplineCount);
+            } else {
+                copy.grades = Arrays.copyOf(grades, disciplineCount);
+            }
+            copy.disciplineCount = disciplineCount;
+            copy.slotTable = slotTable == null ? null : slotTable.clone();
+        }
+        copy.frozen = true;
+        return copy;
+    }
+
+    private void invalidateCaches() {
+        averageValid = false;
+        disciplinesView = null;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Student " + id + " belongs to a read-only school snapshot.");
+        }
+    }
+
+    synchronized void addObserver(StudentObserver observer) {
+        StudentObserver[] updated = Arrays.copyOf(observers, observers.length + 1);
+        updated[observers.length] = observer;
+        observers = updated;
+    }
+
+    synchronized void removeObserver(StudentObserver observer) {
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i] == observer) {
+                StudentObserver[] updated = new StudentObserver[observers.length - 1];
+                System.arraycopy(observers, 0, updated, 0, i);
+                System.arraycopy(observers, i + 1, updated, i, observers.length - i - 1);
+                observers = updated;
+                return;
+            }
+        }
+    }
+
+    private void fireBeforeChange() {
+        for (StudentObserver observer : observers) {
+            observer.beforeStudentChange(this);
+        }
+    }
+
+    private void fireAfterChange() {
+        for (StudentObserver observer : observers) {
+            observer.afterStudentChange(this);
+        }
+    }
+
+    private void fireDetailsChanged() {
+        for (StudentObserver observer : observers) {
+            observer.studentDetailsChanged(this);
+        }
     }
 
     @Override
@@ -123,13 +473,13 @@ public class Student {
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
         return "Student{" +
                 "id=" + id +
                 ", firstName='" + firstName + '\'' +
                 ", lastName='" + lastName + '\'' +
                 ", averageGrade=" + String.format("%.2f", calculateAverageGrade()) + // Показуємо середній бал
-                ", disciplines=" + disciplines +
+                ", disciplines=" + disciplinesView() +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Хеш-таблиця з відкритою адресацією: id учня -> учень, без боксингу ключів
+class StudentIndex {
+    private static final int EMPTY = 0; // 0 у keys - вільна комірка
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Student[] values;
+    // Учень з id 0 (запис без "id" у JSON) - в окремій комірці, бо 0 позначає порожні комірки таблиці
+    private Student zeroIdValue;
+    private int size;
+
+    StudentIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    StudentIndex(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        this.keys = new int[capacity];
+        this.values = new Student[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int id) {
+        return get(id) != null;
+    }
+
+    Student get(int id) {
+        if (id == EMPTY) {
+            return zeroIdValue;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    // Повертає попереднє значення або null
+    Student put(int id, Student student) {
+        if (id == EMPTY) {
+            Student previous = zeroIdValue;
+            zeroIdValue = student;
+            if (previous == null) {
+                size++;
+            }
+            return previous;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                Student previous = values[slot];
+                values[slot] = student;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = student;
+        if (++size > keys.length * 3 / 4) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    // Наперед розширює таблицю, щоб пакетне додавання не перехешовувало її кілька разів
+    void ensureCapacity(int expectedSize) {
+        int capacity = keys.length;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        if (capacity != keys.length) {
+            resize(capacity);
+        }
+    }
+
+    // Додає лише якщо ключа ще немає; повертає true, якщо додано
+    boolean putIfAbsent(int id, Student student) {
+        if (contains(id)) {
+            return false;
+        }
+        put(id, student);
+        return true;
+    }
+
+    Student remove(int id) {
+        if (id == EMPTY) {
+            Student removed = zeroIdValue;
+            if (removed != null) {
+                zeroIdValue = null;
+                size--;
+            }
+            return removed;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                Student removed = values[slot];
+                deleteSlot(slot);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        zeroIdValue = null;
+        size = 0;
+    }
+
+    // Зсуваємо наступні елементи ланцюжка, щоб не залишати "дірок" (без tombstone)
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+            if (movable) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldKeys = keys;
+        Student[] oldValues = values;
+        keys = new int[newCapacity];
+        values = new Student[newCapacity];
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
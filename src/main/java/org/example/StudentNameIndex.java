@@ -0,0 +1,336 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+// Префіксне дерево імен і прізвищ учнів без урахування регістру.
+// Кожен учень потрапляє у вузли свого імені та прізвища; нечіткий пошук - відстань Левенштейна,
+// що рахується рядок за рядком під час обходу дерева, тож спільні префікси не перераховуються.
+// Власне блокування - листове: під ним не беруться монітори учнів.
+class StudentNameIndex {
+    static final int MAX_EDITS = 3;
+
+    private final Node root = new Node();
+    // Імена, під якими учня проіндексовано (потрібні, щоб прибрати його після перейменування),
+    // і його позиції у вузлах цих імен, тож видалення не шукає учня серед однофамільців
+    private final Map<Student, Entry> indexedNames = new IdentityHashMap<>();
+    private final StampedLock lock = new StampedLock();
+    private final Relocation relocation = (student, slot, position) -> indexedNames.get(student).positions[slot] = position;
+
+    // Додає учня або переіндексовує його після зміни імені
+    void add(Student student) {
+        String[] names = {student.getFirstName(), student.getLastName()};
+        long stamp = lock.writeLock();
+        try {
+            Entry previous = indexedNames.get(student);
+            if (previous != null) {
+                if (Arrays.equals(previous.names, names)) {
+                    return;
+                }
+                unindex(previous);
+            }
+            Entry entry = new Entry(names);
+            indexedNames.put(student, entry);
+            for (int slot = 0; slot < names.length; slot++) {
+                if (names[slot] != null) {
+                    entry.positions[slot] = root.insert(names[slot], student, slot);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void remove(Student student) {
+        long stamp = lock.writeLock();
+        try {
+            Entry previous = indexedNames.get(student);
+            if (previous != null) {
+                unindex(previous);
+                indexedNames.remove(student);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void clear() {
+        long stamp = lock.writeLock();
+        try {
+            indexedNames.clear();
+            root.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Запис учня ще в indexedNames: переміщення інших учнів у вузлах (і його самого, якщо ім'я
+    // збігається з прізвищем) оновлюють позиції в ньому
+    private void unindex(Entry entry) {
+        for (int slot = 0; slot < entry.names.length; slot++) {
+            if (entry.names[slot] != null) {
+                root.delete(entry.names[slot], 0, entry.positions[slot], relocation);
+            }
+        }
+    }
+
+    // Учні, в яких кожне слово запиту є префіксом імені або прізвища; в алфавітному порядку першого слова
+    List<Student> findByPrefix(String query, int limit) {
+        String[] words = query.trim().split("\\s+");
+        long stamp = lock.readLock();
+        try {
+            Node node = root.find(words[0]);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            List<Student> result = new ArrayList<>();
+            Set<Student> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            node.collect(student -> {
+                if (seen.add(student) && matchesOtherWords(student, words)) {
+                    result.add(student);
+                }
+                return result.size() < limit;
+            });
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean matchesOtherWords(Student student, String[] words) {
+        String[] names = indexedNames.get(student).names;
+        for (int w = 1; w < words.length; w++) {
+            boolean matched = false;
+            for (String name : names) {
+                if (name != null && startsWithIgnoreCase(name, words[w])) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Учні, ім'я або прізвище яких відрізняється від запиту не більше ніж на maxEdits правок;
+    // спершу найближчі, за рівної відстані - в алфавітному порядку
+    List<Student> findFuzzy(String query, int maxEdits, int limit) {
+        char[] target = query.trim().toCharArray();
+        for (int i = 0; i < target.length; i++) {
+            target[i] = fold(target[i]);
+        }
+        int[] firstRow = new int[target.length + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        long stamp = lock.readLock();
+        try {
+            // Найменша відстань для кожного учня (ім'я і прізвище можуть збігтися по-різному)
+            Map<Student, Integer> distances = new IdentityHashMap<>();
+            List<Student> order = new ArrayList<>();
+            root.fuzzy(target, firstRow, maxEdits, (student, distance) -> {
+                Integer known = distances.get(student);
+                if (known == null) {
+                    order.add(student);
+                }
+                if (known == null || distance < known) {
+                    distances.put(student, distance);
+                }
+            });
+            List<Student> result = new ArrayList<>(order);
+            result.sort((a, b) -> Integer.compare(distances.get(a), distances.get(b))); // Стабільне сортування
+            return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static boolean startsWithIgnoreCase(String name, String prefix) {
+        if (prefix.length() > name.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (fold(name.charAt(i)) != fold(prefix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private interface PrefixVisitor {
+        // false - досить, обхід зупиняється
+        boolean visit(Student student);
+    }
+
+    private interface FuzzyVisitor {
+        void visit(Student student, int distance);
+    }
+
+    // Учня перенесено на іншу позицію у вузлі його імені (slot 0) чи прізвища (slot 1)
+    private interface Relocation {
+        void moved(Student student, int slot, int position);
+    }
+
+    private static final class Entry {
+        private final String[] names;
+        private final int[] positions;
+
+        Entry(String[] names) {
+            this.names = names;
+            this.positions = new int[names.length];
+        }
+    }
+
+    // Вузол: відсортовані мітки дітей у char[] (бінарний пошук) і учні, чиє ім'я закінчується тут,
+    // разом з тим, ім'я (0) чи прізвище (1) учня закінчується в цьому вузлі
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Student[] NO_STUDENTS = new Student[0];
+        private static final byte[] NO_SLOTS = new byte[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Student[] students = NO_STUDENTS;
+        private byte[] slots = NO_SLOTS;
+        private int studentCount;
+
+        // Позиція учня у вузлі імені
+        int insert(String name, Student student, int slot) {
+            Node node = this;
+            for (int i = 0; i < name.length(); i++) {
+                node = node.childOrCreate(fold(name.charAt(i)));
+            }
+            if (node.studentCount == node.students.length) {
+                int capacity = Math.max(2, node.studentCount * 2);
+                node.students = Arrays.copyOf(node.students, capacity);
+                node.slots = Arrays.copyOf(node.slots, capacity);
+            }
+            node.students[node.studentCount] = student;
+            node.slots[node.studentCount] = (byte) slot;
+            return node.studentCount++;
+        }
+
+        // Учень на позиції index замінюється останнім у вузлі (O(1), порядок однофамільців не зберігається);
+        // true, якщо вузол спорожнів і його можна прибрати з батька
+        boolean delete(String name, int depth, int index, Relocation relocation) {
+            if (depth == name.length()) {
+                int last = --studentCount;
+                if (index != last) {
+                    students[index] = students[last];
+                    slots[index] = slots[last];
+                    relocation.moved(students[index], slots[index], index);
+                }
+                students[last] = null;
+            } else {
+                int position = Arrays.binarySearch(labels, fold(name.charAt(depth)));
+                if (position >= 0 && children[position].delete(name, depth + 1, index, relocation)) {
+                    removeChild(position);
+                }
+            }
+            return studentCount == 0 && labels.length == 0;
+        }
+
+        Node find(String prefix) {
+            Node node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                int position = Arrays.binarySearch(node.labels, fold(prefix.charAt(i)));
+                node = position >= 0 ? node.children[position] : null;
+            }
+            return node;
+        }
+
+        boolean collect(PrefixVisitor visitor) {
+            for (int i = 0; i < studentCount; i++) {
+                if (!visitor.visit(students[i])) {
+                    return false;
+                }
+            }
+            for (Node child : children) {
+                if (!child.collect(visitor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // previousRow - рядок матриці Левенштейна для шляху до цього вузла
+        void fuzzy(char[] target, int[] previousRow, int maxEdits, FuzzyVisitor visitor) {
+            int distance = previousRow[target.length];
+            if (distance <= maxEdits) {
+                for (int i = 0; i < studentCount; i++) {
+                    visitor.visit(students[i], distance);
+                }
+            }
+            for (int c = 0; c < labels.length; c++) {
+                int[] row = new int[target.length + 1];
+                row[0] = previousRow[0] + 1;
+                int rowMin = row[0];
+                for (int i = 1; i <= target.length; i++) {
+                    int substitution = previousRow[i - 1] + (target[i - 1] == labels[c] ? 0 : 1);
+                    row[i] = Math.min(substitution, Math.min(previousRow[i] + 1, row[i - 1] + 1));
+                    rowMin = Math.min(rowMin, row[i]);
+                }
+                if (rowMin <= maxEdits) {
+                    children[c].fuzzy(target, row, maxEdits, visitor);
+                }
+            }
+        }
+
+        void clear() {
+            labels = NO_LABELS;
+            children = NO_CHILDREN;
+            students = NO_STUDENTS;
+            slots = NO_SLOTS;
+            studentCount = 0;
+        }
+
+        private Node childOrCreate(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertAt = -position - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            Node child = new Node();
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(int position) {
+            if (labels.length == 1) {
+                labels = NO_LABELS;
+                children = NO_CHILDREN;
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(labels, position + 1, newLabels, position, labels.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.example;
+
+// Сповіщення про зміни учня, щоб власник (School) міг підтримувати свої агрегати та індекси
+interface StudentObserver {
+    // Викликається до зміни: учень ще має старі дані
+    void beforeStudentChange(Student student);
+
+    // Викликається після зміни: учень уже має нові дані
+    void afterStudentChange(Student student);
+
+    // Деталізація зміни, викликається після afterStudentChange
+
+    default void disciplineUpserted(Student student, int nameId, int grade) {
+    }
+
+    default void disciplineRemoved(Student student, int nameId) {
+    }
+
+    // Змінено ім'я/прізвище або весь список дисциплін
+    default void studentDetailsChanged(Student student) {
+    }
+}
@@ -0,0 +1,22 @@
+package org.example;
+
+import java.util.Comparator;
+
+// Порядки учнів для перегляду та експорту; School може підтримувати їх як живі індекси.
+// Учні з однаковими ключами лишаються в порядку списку школи (стабільне сортування), як і в індексах
+public enum StudentOrder {
+    BY_ID(Comparator.comparingInt(Student::getId)),
+    BY_NAME(Comparator.comparing(Student::getLastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Student::getFirstName, String.CASE_INSENSITIVE_ORDER)),
+    BY_AVERAGE_DESC(Comparator.comparingDouble(Student::calculateAverageGrade).reversed());
+
+    private final Comparator<Student> comparator;
+
+    StudentOrder(Comparator<Student> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<Student> comparator() {
+        return comparator;
+    }
+}
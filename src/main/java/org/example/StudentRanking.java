@@ -0,0 +1,190 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Вибір k найкращих (або найгірших) учнів обмеженою купою за O(n log k), без сортування всієї школи.
+// Оцінка кожного учня обчислюється один раз; за рівних оцінок вище той, хто раніше у списку школи.
+class StudentRanking {
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    private final Student[] students;
+    // -1, якщо ранжуємо за середнім балом; інакше id нормалізованої назви дисципліни
+    private final int disciplineKeyId;
+    private final boolean highest;
+
+    private StudentRanking(Student[] students, int disciplineKeyId, boolean highest) {
+        this.students = students;
+        this.disciplineKeyId = disciplineKeyId;
+        this.highest = highest;
+    }
+
+    // disciplineName == null - ранжування за середнім балом; учні без оцінок (чи без цієї дисципліни) пропускаються
+    static List<Student> select(List<Student> students, String disciplineName, int k, boolean highest, boolean parallel) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative.");
+        }
+        int keyId = -1;
+        if (disciplineName != null) {
+            keyId = DisciplineCatalog.idOf(Discipline.normalizeName(disciplineName));
+            if (keyId < 0) {
+                return Collections.emptyList(); // Такої дисципліни немає ні в кого
+            }
+        }
+        if (k == 0 || students.isEmpty()) {
+            return Collections.emptyList();
+        }
+        StudentRanking ranking = new StudentRanking(students.toArray(new Student[0]), keyId, highest);
+        k = Math.min(k, ranking.students.length); // Більше за кількість учнів купа не вміщатиме
+        Heap heap;
+        if (parallel && ranking.students.length > PARALLEL_THRESHOLD) {
+            heap = ForkJoinPool.commonPool().invoke(ranking.new SelectTask(0, ranking.students.length, k));
+        } else {
+            heap = ranking.scan(0, ranking.students.length, k);
+        }
+        return heap.drainBestFirst(ranking.students);
+    }
+
+    private Heap scan(int from, int to, int k) {
+        Heap heap = new Heap(Math.min(k, to - from));
+        for (int i = from; i < to; i++) {
+            double score;
+            if (disciplineKeyId < 0) {
+                score = students[i].calculateAverageGrade();
+                if (score <= 0.0) {
+                    continue;
+                }
+            } else {
+                int grade = students[i].gradeOfKey(disciplineKeyId, Integer.MIN_VALUE);
+                if (grade == Integer.MIN_VALUE) {
+                    continue;
+                }
+                score = grade;
+            }
+            heap.offer(highest ? score : -score, i);
+        }
+        return heap;
+    }
+
+    // Мін-купа на паралельних примітивних масивах: у корені найгірший з k відібраних
+    private static class Heap {
+        private final double[] scores;
+        private final int[] positions;
+        private int size;
+
+        Heap(int capacity) {
+            this.scores = new double[capacity];
+            this.positions = new int[capacity];
+        }
+
+        void offer(double score, int position) {
+            if (size < scores.length) {
+                int child = size++;
+                while (child > 0) {
+                    int parent = (child - 1) >>> 1;
+                    if (!worse(score, position, scores[parent], positions[parent])) {
+                        break;
+                    }
+                    scores[child] = scores[parent];
+                    positions[child] = positions[parent];
+                    child = parent;
+                }
+                scores[child] = score;
+                positions[child] = position;
+            } else if (worse(scores[0], positions[0], score, position)) {
+                siftDown(score, position);
+            }
+        }
+
+        // Кладе елемент у корінь замість найгіршого і відновлює купу
+        private void siftDown(double score, int position) {
+            int parent = 0;
+            while (true) {
+                int child = 2 * parent + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && worse(scores[child + 1], positions[child + 1], scores[child], positions[child])) {
+                    child++;
+                }
+                if (!worse(scores[child], positions[child], score, position)) {
+                    break;
+                }
+                scores[parent] = scores[child];
+                positions[parent] = positions[child];
+                parent = child;
+            }
+            scores[parent] = score;
+            positions[parent] = position;
+        }
+
+        // Та сама купа з більшою місткістю: префікс масивів лишається купою
+        Heap withCapacity(int capacity) {
+            if (capacity <= scores.length) {
+                return this;
+            }
+            Heap grown = new Heap(capacity);
+            System.arraycopy(scores, 0, grown.scores, 0, size);
+            System.arraycopy(positions, 0, grown.positions, 0, size);
+            grown.size = size;
+            return grown;
+        }
+
+        void merge(Heap other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.scores[i], other.positions[i]);
+            }
+        }
+
+        List<Student> drainBestFirst(Student[] students) {
+            Student[] result = new Student[size];
+            while (size > 0) {
+                result[size - 1] = students[positions[0]];
+                size--;
+                if (size > 0) {
+                    siftDown(scores[size], positions[size]);
+                }
+            }
+            List<Student> list = new ArrayList<>(result.length);
+            Collections.addAll(list, result);
+            return list;
+        }
+
+        // a гірший за b: менша оцінка або та сама оцінка, але пізніше у списку
+        private static boolean worse(double scoreA, int positionA, double scoreB, int positionB) {
+            int byScore = Double.compare(scoreA, scoreB);
+            return byScore < 0 || (byScore == 0 && positionA > positionB);
+        }
+    }
+
+    private class SelectTask extends RecursiveTask<Heap> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int k;
+
+        SelectTask(int from, int to, int k) {
+            this.from = from;
+            this.to = to;
+            this.k = k;
+        }
+
+        @Override
+        protected Heap compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return scan(from, to, k);
+            }
+            int middle = (from + to) >>> 1;
+            SelectTask right = new SelectTask(middle, to, k);
+            right.fork();
+            // Купа половини вміщає не більше за її розмір, тож для злиття розширюється до діапазону
+            Heap left = new SelectTask(from, middle, k).compute().withCapacity(Math.min(k, to - from));
+            left.merge(right.join());
+            return left;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Виконавець для задач, що здебільшого чекають на ввід-вивід: віртуальний потік на задачу (Java 21+),
+// а на старіших JDK - пул із parallelism фонових потоків з іменем threadName.
+// Збірка під Java 11, тож фабрика віртуальних потоків шукається через рефлексію.
+final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    static ExecutorService newExecutor(int parallelism, String threadName) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
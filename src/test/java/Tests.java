@@ -1,19 +1,46 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
+import org.example.AutosaveService;
+import org.example.BatchResult;
+import org.example.BulkImportResult;
+import org.example.DataFormat;
 import org.example.DataService;
+import org.example.DatasetGenerator;
 import org.example.Discipline;
+import org.example.DisciplineCatalog;
+import org.example.DisciplineStatistics;
+import org.example.MappedSnapshotReader;
+import org.example.MutationJournal;
 import org.example.School;
+import org.example.SchoolHttpServer;
+import org.example.SchoolMetrics;
+import org.example.SchoolRegistry;
+import org.example.SchoolSnapshot;
 import org.example.Student;
+import org.example.StudentOrder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,6 +85,18 @@ class Tests {
         assertTrue(content.indexOf("\"lastName\" : \"Alpha\"") < content.indexOf("\"lastName\" : \"Beta\""));
     }
 
+    @Test
+    void testExportSchoolToJsonCompactRoundTrip() throws IOException {
+        dataService.exportSchoolToJson(testSchool, testFile.getAbsolutePath(), Comparator.comparingInt(Student::getId), false);
+
+        String content = Files.readString(testFile.toPath());
+        assertFalse(content.contains("\n"));
+        School importedSchool = dataService.importSchoolFromJson(testFile.getAbsolutePath());
+        assertEquals(List.of(student2, student1), importedSchool.getStudents());
+        // Порядок у самій школі не змінився
+        assertEquals(List.of(student1, student2), testSchool.getStudents());
+    }
+
     @Test
     void testExportSchoolToJsonNullSchool() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -91,6 +130,434 @@ class Tests {
         assertEquals(10, importedStudent1.getDisciplines().get(0).getGrade());
     }
 
+    @Test
+    void testImportSchoolFromJsonStreaming() throws IOException {
+        dataService.exportSchoolToJson(testSchool, testFile.getAbsolutePath(), null);
+
+        School importedSchool = dataService.importSchoolFromJsonStreaming(testFile.getAbsolutePath());
+
+        assertEquals(testSchool.getName(), importedSchool.getName());
+        assertEquals(List.of(student1, student2), importedSchool.getStudents());
+        assertEquals(10, importedSchool.getStudentById(10).get().getDisciplines().get(0).getGrade());
+
+        // Кілька пакетів додавання
+        Path generated = tempDir.resolve("generated_streaming.json");
+        DatasetGenerator generator = new DatasetGenerator(11).students(2500).disciplinesPerStudent(3);
+        generator.writeJson(generated);
+        assertEquals(generator.generateSchool().getStudents(),
+                dataService.importSchoolFromJsonStreaming(generated.toString()).getStudents());
+    }
+
+    @Test
+    void testStreamingSkipsNonObjectStudentEntries() throws IOException {
+        Files.writeString(testFile.toPath(), "{ \"students\": ["
+                + "{ \"id\": 1, \"firstName\": \"Ivan\", \"lastName\": \"Pershyi\" }, null, [ 2 ], 3,"
+                + "{ \"id\": 4, \"firstName\": \"Olha\", \"lastName\": \"Ostannia\" } ], \"name\": \"Gaps\" }");
+
+        School importedSchool = dataService.importSchoolFromJsonStreaming(testFile.getAbsolutePath());
+        assertEquals("Gaps", importedSchool.getName());
+        assertEquals(List.of(1, 4), importedSchool.getStudents().stream().map(Student::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testStudentWithoutIdIsImportedAndIndexed() throws IOException {
+        Files.writeString(testFile.toPath(), "{ \"name\": \"No Ids\", \"students\": ["
+                + "{ \"firstName\": \"Ivan\", \"lastName\": \"Bezid\" },"
+                + "{ \"id\": 3, \"firstName\": \"Olha\", \"lastName\": \"Tretia\" } ] }");
+
+        School importedSchool = dataService.importSchoolFromJson(testFile.getAbsolutePath());
+        assertEquals(2, importedSchool.getStudents().size());
+        assertEquals("Bezid", importedSchool.getStudentById(0).get().getLastName());
+        assertFalse(importedSchool.addStudent(new Student())); // Другий учень з id 0 - дублікат
+
+        String binaryPath = tempDir.resolve("no_ids.bin").toString();
+        dataService.exportSchool(importedSchool, binaryPath, null);
+        assertEquals("Bezid", dataService.importSchool(binaryPath).getStudentById(0).get().getLastName());
+    }
+
+    @Test
+    void testImportedDisciplineNamesAreShared() throws IOException {
+        student2.addOrUpdateDiscipline(new Discipline("Math", 7));
+        dataService.exportSchoolToJson(testSchool, testFile.getAbsolutePath(), null);
+
+        School importedSchool = dataService.importSchoolFromJson(testFile.getAbsolutePath());
+        String math1 = importedSchool.getStudentById(10).get().getDisciplines().get(0).getName();
+        String math2 = importedSchool.getStudentById(5).get().getDisciplines().get(1).getName();
+        assertSame(math1, math2);
+        assertSame(DisciplineCatalog.canonical("Math"), math1);
+    }
+
+    @Test
+    void testBinarySnapshotRoundTrip() throws IOException {
+        student1.addOrUpdateDiscipline(new Discipline("Фізика", 12));
+        String binaryPath = tempDir.resolve("school.bin").toString();
+        dataService.exportSchool(testSchool, binaryPath, Comparator.comparingInt(Student::getId));
+
+        School importedSchool = dataService.importSchool(binaryPath);
+
+        assertEquals(testSchool.getName(), importedSchool.getName());
+        assertEquals(List.of(student2, student1), importedSchool.getStudents());
+        Student imported = importedSchool.getStudentById(10).get();
+        assertEquals("Alpha", imported.getLastName());
+        assertEquals(student1.getDisciplines().toString(), imported.getDisciplines().toString());
+        assertEquals(testSchool.calculateSchoolAverageGrade(), importedSchool.calculateSchoolAverageGrade());
+    }
+
+    @Test
+    void testOutOfRangeGradeIsKeptThroughImportAndBinaryRoundTrip() throws IOException {
+        // Як і раніше, оцінка поза 1-12 лише викликає попередження і зберігається як є
+        Files.writeString(testFile.toPath(), "{ \"name\": \"Wide\", \"students\": ["
+                + "{ \"id\": 1, \"firstName\": \"Ivan\", \"lastName\": \"Shyrokyi\","
+                + " \"disciplines\": [ { \"name\": \"Math\", \"grade\": 200 }, { \"name\": \"Art\", \"grade\": 10 } ] } ] }");
+
+        School importedSchool = dataService.importSchoolFromJson(testFile.getAbsolutePath());
+        Student imported = importedSchool.getStudentById(1).orElseThrow();
+        assertEquals("[Math: 200, Art: 10]", imported.getDisciplines().toString());
+        assertEquals(105.0, imported.calculateAverageGrade());
+        assertEquals(105.0, importedSchool.calculateSchoolAverageGrade());
+        imported.addOrUpdateDiscipline(new Discipline("Art", -300));
+        DisciplineStatistics art = importedSchool.calculateDisciplineStatistics().get("Art");
+        assertEquals(-300, art.getMin());
+        assertEquals(1, art.countOf(-300));
+        DisciplineStatistics math = importedSchool.calculateDisciplineStatistics().get("Math");
+        assertEquals(200, math.getMax());
+        assertEquals(200, math.percentile(50));
+        imported.addOrUpdateDiscipline(new Discipline("Art", 10));
+
+        Path binaryPath = tempDir.resolve("wide.bin");
+        dataService.exportSchool(importedSchool, binaryPath.toString(), null);
+        School restored = dataService.importSchool(binaryPath.toString());
+        assertEquals("[Math: 200, Art: 10]", restored.getStudentById(1).orElseThrow().getDisciplines().toString());
+        assertEquals(105.0, restored.calculateSchoolAverageGrade());
+        try (MappedSnapshotReader reader = new MappedSnapshotReader(binaryPath)) {
+            assertEquals("[Math: 200, Art: 10]", reader.findStudentById(1).orElseThrow().getDisciplines().toString());
+        }
+    }
+
+    @Test
+    void testMappedSnapshotReaderFindsSingleStudent() throws IOException {
+        Path binaryPath = tempDir.resolve("archive.bin");
+        dataService.exportSchoolToBinary(testSchool, binaryPath.toString(), null);
+
+        try (MappedSnapshotReader reader = new MappedSnapshotReader(binaryPath)) {
+            assertEquals("Test Export School", reader.schoolName());
+            assertEquals(2, reader.studentCount());
+            Student found = reader.findStudentById(5).orElseThrow();
+            assertEquals("Adam", found.getFirstName());
+            assertEquals("[Physics: 9]", found.getDisciplines().toString());
+            assertFalse(reader.findStudentById(7).isPresent());
+        }
+    }
+
+    @Test
+    void testBinarySnapshotRejectsForeignFile() throws IOException {
+        Path binaryPath = tempDir.resolve("broken.bin");
+        Files.writeString(binaryPath, "{ not a snapshot }");
+        assertThrows(IOException.class, () -> dataService.importSchoolFromBinary(binaryPath.toString()));
+    }
+
+    @Test
+    void testMutationJournalReplaysChangesOntoSnapshot() throws Exception {
+        String snapshotPath = tempDir.resolve("journaled.bin").toString();
+        dataService.exportSchool(testSchool, snapshotPath, null);
+
+        try (MutationJournal journal = new MutationJournal(dataService, snapshotPath)) {
+            School live = journal.recover();
+            live.addStudent(new Student(7, "Olena", "Gamma"));
+            live.getStudentById(7).get().addOrUpdateDiscipline(new Discipline("Art", 11));
+            live.getStudentById(10).get().removeDiscipline("math");
+            live.getStudentById(5).get().setLastName("Betta");
+            live.removeStudent(5);
+            live.addStudent(new Student(5, "Adam", "Delta"));
+            live.setName("Renamed School");
+        }
+
+        try (MutationJournal journal = new MutationJournal(dataService, snapshotPath, 1)) {
+            School recovered = journal.recover();
+            assertEquals("Renamed School", recovered.getName());
+            assertEquals(List.of(10, 7, 5), recovered.getStudents().stream().map(Student::getId).collect(Collectors.toList()));
+            assertTrue(recovered.getStudentById(10).get().getDisciplines().isEmpty());
+            assertEquals("[Art: 11]", recovered.getStudentById(7).get().getDisciplines().toString());
+            assertEquals("Delta", recovered.getStudentById(5).get().getLastName());
+
+            // Компакція переносить журнал у знімок
+            recovered.getStudentById(7).get().addOrUpdateDiscipline(new Discipline("Art", 12));
+            journal.compactAsync().get();
+            School compacted = dataService.importSchool(snapshotPath);
+            assertEquals("Renamed School", compacted.getName());
+            assertEquals(12, compacted.getStudentById(7).get().getDisciplines().get(0).getGrade());
+        }
+    }
+
+    @Test
+    void testMutationJournalCheckpointsResetsInsteadOfLoggingThem() throws Exception {
+        String snapshotPath = tempDir.resolve("reset.bin").toString();
+        dataService.exportSchool(testSchool, snapshotPath, null);
+
+        try (MutationJournal journal = new MutationJournal(dataService, snapshotPath)) {
+            School live = journal.recover();
+            List<Student> replacement = new ArrayList<>();
+            for (int id = 1; id <= 500; id++) {
+                replacement.add(new Student(id, "Name" + id, "Reset"));
+            }
+            live.setStudents(replacement);
+            live.getStudentById(3).get().addOrUpdateDiscipline(new Discipline("Math", 9));
+            journal.sync();
+            // Скидання записано знімком, у журналі лишилося не більше ніж кілька дрібних записів
+            assertTrue(journal.journalSize() < 1024);
+            assertEquals(500, dataService.importSchool(snapshotPath).getStudents().size());
+        }
+        try (MutationJournal journal = new MutationJournal(dataService, snapshotPath)) {
+            School recovered = journal.recover();
+            assertEquals(500, recovered.getStudents().size());
+            assertEquals("Reset", recovered.getStudentById(10).get().getLastName());
+            assertEquals("[Math: 9]", recovered.getStudentById(3).get().getDisciplines().toString());
+        }
+    }
+
+    @Test
+    void testMutationJournalSetsAsideUnreadableJournal() throws Exception {
+        String snapshotPath = tempDir.resolve("corrupt.bin").toString();
+        dataService.exportSchool(testSchool, snapshotPath, null);
+        Path journalPath = Path.of(snapshotPath + ".journal");
+        Files.writeString(journalPath, "not a journal at all");
+
+        try (MutationJournal journal = new MutationJournal(dataService, snapshotPath)) {
+            School recovered = journal.recover();
+            assertEquals(2, recovered.getStudents().size());
+            recovered.addStudent(new Student(7, "Olena", "Gamma"));
+        }
+        assertEquals("not a journal at all", Files.readString(Path.of(snapshotPath + ".journal.corrupt")));
+        try (MutationJournal journal = new MutationJournal(dataService, snapshotPath)) {
+            assertTrue(journal.recover().getStudentById(7).isPresent());
+        }
+    }
+
+    @Test
+    void testSchoolRegistryShardsAndPersistsInParallel() throws IOException {
+        School second = new School("Second School");
+        Student farStudent = new Student(250_000, "Olena", "Far");
+        farStudent.addOrUpdateDiscipline(new Discipline("Math", 4));
+        second.addStudent(farStudent);
+        second.addStudent(new Student(7, "Ivan", "Near"));
+
+        try (SchoolRegistry registry = new SchoolRegistry(100_000, 4)) {
+            assertEquals(2, registry.addSchool(testSchool).getAcceptedCount());
+            assertTrue(registry.addSchool(second).isFullySuccessful());
+            assertTrue(second.getStudents().isEmpty()); // Учні перейшли до шардів
+            farStudent.addOrUpdateDiscipline(new Discipline("Math", 4));
+            assertEquals(0.0, second.calculateSchoolAverageGrade());
+            assertEquals(2, registry.shardCount("Second School"));
+            assertEquals(farStudent, registry.getStudentById("Second School", 250_000).get());
+            assertFalse(registry.getStudentById("Test Export School", 250_000).isPresent());
+            assertTrue(registry.addStudent("Test Export School", new Student(150_001, "Petro", "New")));
+            assertEquals((10.0 + 9.0 + 4.0) / 3, registry.calculateDistrictAverageGrade(), 1e-9);
+            assertEquals(2, registry.calculateDisciplineStatistics().get("Math").getCount());
+
+            School duplicates = new School("Duplicates");
+            duplicates.setStudents(List.of(new Student(1, "Anna", "First"), new Student(1, "Anna", "Copy")));
+            BatchResult<Student> added = registry.addSchool(duplicates);
+            assertEquals(1, added.getAcceptedCount());
+            assertEquals("Copy", added.getRejected().get(0).getRecord().getLastName());
+            registry.removeSchool("Duplicates");
+
+            Path directory = tempDir.resolve("district");
+            registry.exportAll(directory, DataFormat.BINARY);
+
+            try (SchoolRegistry restored = new SchoolRegistry(100_000, 2)) {
+                assertEquals(5, restored.importAll(directory).getAcceptedCount());
+                assertEquals(registry.getSchoolNames(), restored.getSchoolNames());
+                for (String name : registry.getSchoolNames()) {
+                    assertEquals(registry.getStudents(name), restored.getStudents(name));
+                    assertEquals(registry.calculateSchoolAverageGrade(name), restored.calculateSchoolAverageGrade(name), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testImportSchoolsFromDirectoryMergesInFileOrder() throws IOException {
+        Path feed = tempDir.resolve("feed");
+        Files.createDirectories(feed);
+        dataService.exportSchoolToJson(testSchool, feed.resolve("a_class.json").toString(), null);
+        School other = new School("Other");
+        Student duplicate = new Student(10, "Copy", "OfZara");
+        other.addStudent(duplicate);
+        other.addStudent(new Student(11, "Nina", "Gamma"));
+        dataService.exportSchool(other, feed.resolve("b_class.bin").toString(), null);
+        Files.writeString(feed.resolve("c_broken.json"), "{ \"name\": ");
+        Files.writeString(feed.resolve("notes.txt"), "не імпортується");
+
+        BulkImportResult result = dataService.importSchoolsFromDirectory(feed.toString(), "*.{json,bin}", 2);
+
+        assertEquals("Test Export School", result.getSchool().getName());
+        assertEquals(List.of(10, 5, 11), result.getSchool().getStudents().stream()
+                .map(Student::getId).collect(Collectors.toList()));
+        assertEquals("Zara", result.getSchool().getStudentById(10).get().getFirstName());
+        assertEquals(List.of(10), result.getSkippedDuplicateIds().get(feed.resolve("b_class.bin")));
+        assertEquals(2, result.getImportedFiles().size());
+        assertTrue(result.getFailedFiles().containsKey(feed.resolve("c_broken.json")));
+    }
+
+    @Test
+    void testDatasetGeneratorIsDeterministicAndImportable() throws IOException {
+        Path first = tempDir.resolve("generated_1.json");
+        Path second = tempDir.resolve("generated_2.json");
+        new DatasetGenerator(7).students(500).disciplinesPerStudent(6).skew(1.2).missingGradeRatio(0.25).writeJson(first);
+        new DatasetGenerator(7).students(500).disciplinesPerStudent(6).skew(1.2).missingGradeRatio(0.25).writeJson(second);
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+
+        School imported = dataService.importSchoolFromJson(first.toString());
+        assertEquals(500, imported.getStudents().size());
+        int grades = 0;
+        for (Student student : imported.getStudents()) {
+            assertTrue(student.getDisciplines().size() <= 6);
+            grades += student.getDisciplines().size();
+            for (Discipline discipline : student.getDisciplines()) {
+                assertTrue(discipline.getGrade() >= 1 && discipline.getGrade() <= 12);
+            }
+        }
+        // Приблизно чверть оцінок пропущено
+        assertTrue(grades > 500 * 6 * 0.65 && grades < 500 * 6 * 0.85, "grades = " + grades);
+        assertEquals(imported.getStudents(), new DatasetGenerator(7).students(500).disciplinesPerStudent(6)
+                .skew(1.2).missingGradeRatio(0.25).generateSchool().getStudents());
+    }
+
+    @Test
+    void testImportAndExportAreRecordedInMetrics() throws Exception {
+        SchoolMetrics metrics = SchoolMetrics.instance();
+        long exportsBefore = metrics.snapshot(SchoolMetrics.Operation.JSON_EXPORT).getCount();
+        long importedBefore = metrics.snapshot(SchoolMetrics.Operation.JSON_IMPORT).getStudents();
+
+        dataService.exportSchoolToJson(testSchool, testFile.getAbsolutePath(), null);
+        dataService.importSchoolFromJson(testFile.getAbsolutePath());
+
+        assertEquals(exportsBefore + 1, metrics.snapshot(SchoolMetrics.Operation.JSON_EXPORT).getCount());
+        assertEquals(importedBefore + 2, metrics.snapshot(SchoolMetrics.Operation.JSON_IMPORT).getStudents());
+        assertTrue(metrics.snapshot(SchoolMetrics.Operation.JSON_EXPORT).getBytes() >= testFile.length());
+        assertTrue(metrics.dump().contains("JSON_IMPORT"));
+
+        // Ті самі дані через платформний MBeanServer, як їх бачить jconsole
+        CompositeData[] operations = (CompositeData[]) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(SchoolMetrics.OBJECT_NAME), "Operations");
+        assertEquals(SchoolMetrics.Operation.values().length, operations.length);
+        assertEquals("ADD_STUDENT", operations[0].get("operation"));
+    }
+
+    @Test
+    void testHttpApiExposesSchoolOperations() throws Exception {
+        try (SchoolHttpServer server = new SchoolHttpServer(testSchool, dataService, 0)) {
+            server.start();
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.getPort();
+
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(base + "/students"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"id\":7,\"firstName\":\"Ivan\",\"lastName\":\"Franko\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, created.statusCode());
+            assertTrue(testSchool.getStudentById(7).isPresent());
+
+            HttpResponse<String> duplicate = client.send(HttpRequest.newBuilder(URI.create(base + "/students"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"id\":7,\"firstName\":\"A\",\"lastName\":\"B\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(409, duplicate.statusCode());
+
+            HttpResponse<String> upserted = client.send(HttpRequest.newBuilder(URI.create(base + "/students/7/disciplines"))
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"History\",\"grade\":11}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, upserted.statusCode());
+            assertEquals(11.0, testSchool.getStudentById(7).get().calculateAverageGrade(), 0.001);
+
+            HttpResponse<String> page = client.send(HttpRequest.newBuilder(URI.create(base + "/students?offset=1&limit=1"))
+                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, page.statusCode());
+            assertTrue(page.body().contains("\"total\":3"));
+            assertTrue(page.body().contains("\"firstName\":\"Adam\""));
+            assertFalse(page.body().contains("Zara"));
+
+            HttpResponse<String> invalidGrade = client.send(HttpRequest.newBuilder(URI.create(base + "/students/7/disciplines"))
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"History\",\"grade\":1000}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, invalidGrade.statusCode());
+
+            HttpResponse<String> missingGrade = client.send(HttpRequest.newBuilder(URI.create(base + "/students/7/disciplines"))
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"History\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, missingGrade.statusCode());
+            assertEquals(11.0, testSchool.getStudentById(7).get().calculateAverageGrade(), 0.001);
+
+            // Відхилений запит не додає назву дисципліни до глобального каталогу
+            HttpResponse<String> rejectedStudent = client.send(HttpRequest.newBuilder(URI.create(base + "/students"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"id\":8,\"firstName\":\"Lesya\",\"lastName\":\"Ukrainka\","
+                            + "\"disciplines\":[{\"name\":\"Rejected Http Discipline\"}]}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, rejectedStudent.statusCode());
+            assertFalse(testSchool.getStudentById(8).isPresent());
+            assertEquals(-1, DisciplineCatalog.idOf("Rejected Http Discipline"));
+
+            HttpResponse<String> tooLarge = client.send(HttpRequest.newBuilder(URI.create(base + "/students"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"pad\":\"" + "x".repeat(SchoolHttpServer.MAX_BODY_BYTES) + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(413, tooLarge.statusCode());
+
+            HttpResponse<String> deleted = client.send(HttpRequest.newBuilder(URI.create(base + "/students/7"))
+                    .DELETE().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(204, deleted.statusCode());
+            HttpResponse<String> missing = client.send(HttpRequest.newBuilder(URI.create(base + "/students/7"))
+                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, missing.statusCode());
+
+            HttpResponse<String> prefixOnly = client.send(HttpRequest.newBuilder(URI.create(base + "/schoolX"))
+                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, prefixOnly.statusCode());
+        }
+    }
+
+    @Test
+    void testAutosaveCoalescesBurstsAndReplacesFileAtomically() throws Exception {
+        Path target = tempDir.resolve("autosave.json");
+        // Затримки більші за тест: збереження відбувається лише за flush() і close()
+        try (AutosaveService autosave = new AutosaveService(testSchool, dataService, target.toString(), 60_000, 60_000)) {
+            for (int id = 100; id < 200; id++) {
+                testSchool.addStudent(new Student(id, "Burst", "Student" + id));
+            }
+            assertTrue(autosave.hasUnsavedChanges());
+            assertEquals(0, autosave.saveCount());
+
+            autosave.flush();
+            // Сотня змін поспіль - одне збереження
+            assertEquals(1, autosave.saveCount());
+            assertFalse(autosave.hasUnsavedChanges());
+            assertEquals(102, dataService.importSchoolFromJson(target.toString()).getStudents().size());
+            assertFalse(Files.exists(tempDir.resolve("autosave.json.tmp.json")));
+
+            testSchool.removeStudent(100);
+        }
+        // close() дописує останню зміну
+        assertEquals(101, dataService.importSchoolFromJson(target.toString()).getStudents().size());
+    }
+
+    @Test
+    void testAutosaveSyncsJournal() throws Exception {
+        String snapshotPath = tempDir.resolve("autosaved.bin").toString();
+        dataService.exportSchool(testSchool, snapshotPath, null);
+
+        try (MutationJournal journal = new MutationJournal(dataService, snapshotPath)) {
+            School live = journal.recover();
+            try (AutosaveService autosave = new AutosaveService(live, journal, 60_000, 60_000)) {
+                live.addStudent(new Student(7, "Olena", "Gamma"));
+                assertTrue(autosave.hasUnsavedChanges());
+                autosave.flush();
+                assertEquals(1, autosave.saveCount());
+                assertFalse(autosave.hasUnsavedChanges());
+                assertTrue(journal.journalSize() > 0);
+            }
+        }
+        try (MutationJournal journal = new MutationJournal(dataService, snapshotPath)) {
+            assertEquals("Gamma", journal.recover().getStudentById(7).get().getLastName());
+        }
+    }
+
     @Test
     void testImportSchoolFromJsonFileNotFound() {
         // Не створюємо файл, просто намагаємось імпортувати
@@ -140,6 +607,40 @@ class SchoolTest {
         school.addStudent(student2);
     }
 
+    @Test
+    void testSnapshotsAreImmutableVersionsSharingUnchangedStudents() {
+        SchoolSnapshot before = school.snapshot();
+        assertSame(before, school.snapshot()); // Без змін - та сама версія
+        assertEquals(2, before.size());
+
+        school.upsertDiscipline(1, new Discipline("Math", 2));
+        school.addStudent(student3);
+        SchoolSnapshot after = school.snapshot();
+        assertTrue(after.version() > before.version());
+        // Стара версія не змінилася
+        assertEquals(9.0, before.students().get(0).calculateAverageGrade(), 0.001);
+        assertEquals(2, before.size());
+        assertEquals(5.0, after.students().get(0).calculateAverageGrade(), 0.001);
+        assertSame(before.students().get(1), after.students().get(1)); // Незмінений учень - спільний
+        assertEquals(List.of(1, 2, 3), after.students().stream().map(Student::getId).collect(Collectors.toList()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> after.students().get(0).addOrUpdateDiscipline(new Discipline("Art", 12)));
+
+        // Кілька рівнів дерева, видалення з ущільненням і сортування
+        for (int id = 10; id < 3000; id++) {
+            school.addStudent(new Student(id, "Name" + id, "Last" + id));
+        }
+        for (int id = 10; id < 2500; id++) {
+            school.removeStudent(id);
+        }
+        school.sortStudents(Comparator.comparingInt(Student::getId).reversed());
+        SchoolSnapshot sorted = school.snapshot();
+        assertEquals(school.getStudents().size(), sorted.size());
+        assertEquals(school.getStudents(), sorted.students());
+        assertEquals(school.calculateSchoolAverageGrade(), sorted.calculateSchoolAverageGrade(), 0.001);
+        assertEquals(3, after.size());
+    }
+
     @Test
     void testSchoolCreationValid() {
         School newSchool = new School("Valid Name");
@@ -191,6 +692,310 @@ class SchoolTest {
         assertFalse(school.updateStudent(nonExistent));
     }
 
+    @Test
+    void testStudentIndexStaysInSync() {
+        assertTrue(school.removeStudent(1));
+        assertFalse(school.getStudentById(1).isPresent());
+        assertFalse(school.removeStudent(1));
+        assertTrue(school.addStudent(new Student(1, "Alicia", "Smith")));
+        assertEquals("Alicia", school.getStudentById(1).get().getFirstName());
+
+        school.setStudents(List.of(student3));
+        assertTrue(school.getStudentById(3).isPresent());
+        assertFalse(school.getStudentById(2).isPresent());
+        assertTrue(school.addStudent(student2));
+        assertEquals(List.of(student3, student2), school.getStudents());
+
+        // id учня в школі не змінюється, інакше індекс указував би на старий id
+        assertThrows(IllegalStateException.class, () -> student3.setId(42));
+        assertTrue(school.getStudentById(3).isPresent());
+        assertTrue(school.removeStudent(3));
+        student3.setId(42);
+        assertTrue(school.addStudent(student3));
+        assertEquals(student3, school.getStudentById(42).get());
+        assertFalse(school.getStudentById(3).isPresent());
+    }
+
+    @Test
+    void testGetStudentsIsLiveViewAndCopyIsStable() {
+        List<Student> view = school.getStudents();
+        List<Student> copy = school.copyOfStudents();
+        school.addStudent(student3);
+
+        assertEquals(List.of(student1, student2, student3), view);
+        assertEquals(List.of(student1, student2), copy);
+        assertThrows(UnsupportedOperationException.class, () -> view.add(student3));
+        assertThrows(UnsupportedOperationException.class, () -> copy.clear());
+    }
+
+    @Test
+    void testSchoolAverageTracksStudentChanges() {
+        assertEquals(9.0, school.calculateSchoolAverageGrade());
+
+        school.addStudent(student3); // Без оцінок - не враховується
+        assertEquals(9.0, school.calculateSchoolAverageGrade());
+
+        student3.addOrUpdateDiscipline(new Discipline("Math", 12));
+        assertEquals(10.0, school.calculateSchoolAverageGrade());
+
+        student1.removeDiscipline("Art"); // Alice: 10.0
+        assertEquals((10.0 + 9.0 + 12.0) / 3, school.calculateSchoolAverageGrade(), 1e-9);
+
+        school.removeStudent(3);
+        student3.addOrUpdateDiscipline(new Discipline("Art", 1)); // Вже не в школі
+        assertEquals(9.5, school.calculateSchoolAverageGrade());
+
+        school.setStudents(List.of());
+        assertEquals(0.0, school.calculateSchoolAverageGrade());
+    }
+
+    @Test
+    void testSchoolAverageIsExactAfterManyChanges() {
+        String[] names = {"Math", "Art", "Physics", "History", "Biology", "Chemistry", "Music"};
+        Random random = new Random(42);
+        List<Student> members = new ArrayList<>(school.getStudents());
+        for (int step = 0, nextId = 100; step < 20_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 3 || members.isEmpty()) {
+                Student student = new Student(nextId++, "Student", "N" + nextId);
+                student.addOrUpdateDiscipline(new Discipline(names[random.nextInt(names.length)], 1 + random.nextInt(12)));
+                school.addStudent(student);
+                members.add(student);
+            } else if (operation < 8) {
+                Student student = members.get(random.nextInt(members.size()));
+                student.addOrUpdateDiscipline(new Discipline(names[random.nextInt(names.length)], 1 + random.nextInt(12)));
+            } else if (operation < 9) {
+                members.get(random.nextInt(members.size())).removeDiscipline(names[random.nextInt(names.length)]);
+            } else {
+                Student student = members.remove(random.nextInt(members.size()));
+                school.removeStudent(student.getId());
+            }
+        }
+
+        School recomputed = new School("Recomputed");
+        recomputed.setStudents(school.getStudents());
+        assertEquals(recomputed.calculateSchoolAverageGrade(), school.calculateSchoolAverageGrade());
+        double fullRecompute = school.getStudents().stream()
+                .mapToDouble(Student::calculateAverageGrade)
+                .filter(average -> average > 0.0)
+                .average()
+                .orElse(0.0);
+        assertEquals(fullRecompute, school.calculateSchoolAverageGrade(), 1e-12);
+    }
+
+    @Test
+    void testConcurrentGradeUpdatesKeepAverageConsistent() throws InterruptedException {
+        for (int id = 100; id < 108; id++) {
+            school.addStudent(new Student(id, "Student", "N" + id));
+        }
+        Thread[] writers = new Thread[8];
+        for (int t = 0; t < writers.length; t++) {
+            int studentId = 100 + t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    school.upsertDiscipline(studentId, new Discipline("Subject" + (i % 16), 1 + i % 12));
+                    school.copyOfStudents(); // Паралельне читання не повинно падати
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        double expected = school.getStudents().stream()
+                .mapToDouble(Student::calculateAverageGrade)
+                .filter(average -> average > 0)
+                .average()
+                .orElse(0.0);
+        assertEquals(expected, school.calculateSchoolAverageGrade(), 1e-9);
+    }
+
+    @Test
+    void testDisciplineStatisticsSequentialAndParallelAgree() {
+        student3.addOrUpdateDiscipline(new Discipline("math", 12)); // Та сама дисципліна, інший регістр
+        school.addStudent(student3);
+
+        Map<String, DisciplineStatistics> report = school.calculateDisciplineStatistics();
+        assertEquals(List.of("Art", "History", "Math", "Physics"), List.copyOf(report.keySet()));
+        DisciplineStatistics math = report.get("Math");
+        assertEquals(2, math.getCount());
+        assertEquals(11.0, math.getMean());
+        assertEquals(10, math.getMin());
+        assertEquals(12, math.getMax());
+        assertEquals(10, math.getMedian());
+        assertEquals(12, math.percentile(100));
+        assertEquals(1, math.getHistogram()[9]);
+        assertEquals(1, math.getHistogram()[11]);
+
+        for (int id = 100; id < 20_100; id++) {
+            Student student = new Student(id, "Student", "N" + id);
+            student.addOrUpdateDiscipline(new Discipline("Math", 1 + id % 12));
+            school.addStudent(student);
+        }
+        Map<String, DisciplineStatistics> sequential = school.calculateDisciplineStatistics(false);
+        Map<String, DisciplineStatistics> parallel = school.calculateDisciplineStatistics(true);
+        assertEquals(sequential.keySet(), parallel.keySet());
+        for (String name : sequential.keySet()) {
+            assertArrayEquals(sequential.get(name).getHistogram(), parallel.get(name).getHistogram());
+            assertEquals(sequential.get(name).getMean(), parallel.get(name).getMean());
+        }
+        assertEquals(20_002, parallel.get("Math").getCount());
+    }
+
+    @Test
+    void testTopAndBottomStudentsKeepStoredOrder() {
+        student3.addOrUpdateDiscipline(new Discipline("Math", 12));
+        school.addStudent(student3);
+        school.addStudent(new Student(4, "Dana", "White")); // Без оцінок - у рейтинг не потрапляє
+
+        assertEquals(List.of(student3, student1), school.topStudents(2)); // Alice і Bob по 9.0: раніше - вище
+        assertEquals(List.of(student1, student2), school.bottomStudents(2));
+        assertEquals(List.of(student3, student1), school.topStudents("MATH", 5));
+        assertEquals(List.of(student1), school.bottomStudents("math", 1));
+        assertTrue(school.topStudents("Chemistry", 3).isEmpty());
+        assertEquals(List.of(student3, student1, student2), school.rankStudents(null, Integer.MAX_VALUE, true, false));
+        assertEquals(List.of(1, 2, 3, 4), school.getStudents().stream().map(Student::getId).collect(Collectors.toList()));
+
+        for (int id = 100; id < 20_100; id++) {
+            Student student = new Student(id, "Student", "N" + id);
+            student.addOrUpdateDiscipline(new Discipline("Math", 1 + id % 11));
+            school.addStudent(student);
+        }
+        List<Student> expected = school.getStudents().stream()
+                .filter(student -> student.calculateAverageGrade() > 0)
+                .sorted(Comparator.comparingDouble(Student::calculateAverageGrade).reversed())
+                .limit(50)
+                .collect(Collectors.toList());
+        assertEquals(expected, school.rankStudents(null, 50, true, true));
+        assertEquals(expected, school.rankStudents(null, 50, true, false));
+
+        // k більше за частину одного паралельного завдання і за всю школу
+        List<Student> all = school.getStudents().stream()
+                .filter(student -> student.calculateAverageGrade() > 0)
+                .sorted(Comparator.comparingDouble(Student::calculateAverageGrade).reversed())
+                .collect(Collectors.toList());
+        assertEquals(all.subList(0, 15_000), school.rankStudents(null, 15_000, true, true));
+        assertEquals(all, school.rankStudents(null, Integer.MAX_VALUE, true, true));
+        assertEquals(all, school.rankStudents(null, Integer.MAX_VALUE, true, false));
+    }
+
+    @Test
+    void testSortedViewsFollowMutations() {
+        school.addStudent(student3);
+        school.enableSortedViews();
+        assertTrue(school.sortedViewsEnabled());
+        assertEquals(List.of(student3, student2, student1), school.getStudents(StudentOrder.BY_NAME));
+
+        student3.setLastName("Zimmer");
+        student3.addOrUpdateDiscipline(new Discipline("Math", 12));
+        student2.removeDiscipline("History"); // Bob: 11.0
+        school.addStudent(new Student(4, "Dana", "Adams"));
+        school.removeStudent(1);
+
+        for (StudentOrder order : StudentOrder.values()) {
+            List<Student> expected = new ArrayList<>(school.getStudents());
+            expected.sort(order.comparator());
+            assertEquals(expected, school.getStudents(order), order.name());
+        }
+        assertEquals(List.of(3, 2, 4), school.getStudents(StudentOrder.BY_AVERAGE_DESC).stream()
+                .map(Student::getId).collect(Collectors.toList()));
+
+        school.setStudents(List.of(student1, student2));
+        assertEquals(List.of(student1, student2), school.getStudents(StudentOrder.BY_ID));
+        school.disableSortedViews();
+        assertEquals(List.of(student2, student1), school.getStudents(StudentOrder.BY_AVERAGE_DESC));
+    }
+
+    @Test
+    void testEqualKeysKeepListOrderWithAndWithoutSortedViews() {
+        // Alice (1) і Bob (2) мають однаковий середній бал 9.0; двоє "Ann Lee" - однакове ім'я
+        Student later = new Student(9, "Ann", "Lee");
+        Student earlier = new Student(8, "Ann", "Lee");
+        school.addStudent(later);
+        school.addStudent(earlier);
+        school.enableSortedViews();
+
+        student1.setFirstName("Alicia"); // Зміна учня не пересуває його серед рівних
+        later.setLastName("Lee");
+        for (StudentOrder order : StudentOrder.values()) {
+            List<Student> indexed = school.getStudents(order);
+            school.disableSortedViews();
+            assertEquals(school.getStudents(order), indexed, order.name());
+            school.enableSortedViews();
+        }
+        assertEquals(List.of(later, earlier), school.getStudents(StudentOrder.BY_NAME).subList(1, 3)); // Після Jones
+        assertEquals(List.of(student1, student2), school.getStudents(StudentOrder.BY_AVERAGE_DESC).subList(0, 2));
+
+        school.sortStudents(Comparator.comparing(Student::getFirstName).reversed()); // Bob, Ann, Ann, Alicia
+        assertEquals(List.of(later, earlier), school.getStudents(StudentOrder.BY_NAME).subList(1, 3));
+        assertEquals(List.of(student2, student1), school.getStudents(StudentOrder.BY_AVERAGE_DESC).subList(0, 2));
+        school.sortStudents(Comparator.comparingInt(Student::getId));
+        assertEquals(List.of(earlier, later), school.getStudents(StudentOrder.BY_NAME).subList(1, 3));
+        assertEquals(List.of(student1, student2), school.getStudents(StudentOrder.BY_AVERAGE_DESC).subList(0, 2));
+    }
+
+    @Test
+    void testNameSearchByPrefixAndFuzzy() {
+        school.addStudent(student3);
+        assertEquals(List.of(student1), school.searchStudentsByName("smi", 10));
+        assertEquals(List.of(student2, student3), school.searchStudentsByName("B", 10)); // Алфавітно: Bob, Brown
+        assertEquals(List.of(student3), school.searchStudentsByName("br CHA", 10));
+        assertTrue(school.searchStudentsByName("Zed", 10).isEmpty());
+        assertEquals(List.of(student1), school.searchStudentsByNameFuzzy("Smtih", 2, 10));
+        assertTrue(school.searchStudentsByNameFuzzy("Smtih", 1, 10).isEmpty());
+
+        // Індекс уже побудовано - далі він має стежити за змінами
+        student1.setLastName("Taylor");
+        assertTrue(school.searchStudentsByName("Smith", 10).isEmpty());
+        assertEquals(List.of(student1), school.searchStudentsByName("tay", 10));
+        Student dana = new Student(4, "Dana", "Jonas");
+        school.addStudent(dana);
+        assertEquals(List.of(student2, dana), school.searchStudentsByNameFuzzy("jones", 1, 10));
+        school.removeStudent(2);
+        assertEquals(List.of(dana), school.searchStudentsByName("jon", 10));
+        Student updatedDana = new Student(4, "Dana", "Wells");
+        school.updateStudent(updatedDana);
+        assertTrue(school.searchStudentsByName("jon", 10).isEmpty());
+        assertEquals(List.of(updatedDana), school.searchStudentsByName("Dana", 10));
+
+        // Однофамільці й ім'я, що збігається з прізвищем: видалення переставляє учнів у вузлі
+        Student lee = new Student(5, "Lee", "Lee");
+        Student ann = new Student(6, "Ann", "Lee");
+        Student kim = new Student(7, "Kim", "Lee");
+        school.addStudent(lee);
+        school.addStudent(ann);
+        school.addStudent(kim);
+        school.removeStudent(5);
+        assertEquals(Set.of(ann, kim), Set.copyOf(school.searchStudentsByName("lee", 10)));
+        school.removeStudent(6);
+        assertEquals(List.of(kim), school.searchStudentsByName("lee", 10));
+        school.removeStudent(7);
+        assertTrue(school.searchStudentsByName("lee", 10).isEmpty());
+    }
+
+    @Test
+    void testAddStudentsRejectsDuplicatesInOnePass() {
+        Student duplicateOfAlice = new Student(1, "Alice", "Clone");
+        Student repeatedInBatch = new Student(5, "Eve", "Twice");
+        BatchResult<Student> result = school.addStudents(
+                List.of(student3, duplicateOfAlice, repeatedInBatch, new Student(5, "Eve", "Again")));
+
+        assertEquals(2, result.getAcceptedCount());
+        assertEquals(2, result.getRejected().size());
+        assertSame(duplicateOfAlice, result.getRejected().get(0).getRecord());
+        assertEquals(List.of(1, 2, 3, 5), school.getStudents().stream().map(Student::getId).collect(Collectors.toList()));
+        assertSame(repeatedInBatch, school.getStudentById(5).get());
+
+        Map<Integer, List<Discipline>> upload = Map.of(
+                3, List.of(new Discipline("Math", 12), new Discipline("Art", 10)),
+                99, List.of(new Discipline("Math", 1)));
+        BatchResult<Discipline> grades = school.addOrUpdateDisciplines(upload);
+        assertEquals(2, grades.getAcceptedCount());
+        assertEquals(1, grades.getRejected().size());
+        assertEquals((9.0 + 9.0 + 11.0) / 3, school.calculateSchoolAverageGrade(), 1e-9);
+    }
+
     @Test
     void testSortStudentsByName() {
         // Студенти: Alice Smith (1), Bob Jones (2)
@@ -214,6 +1019,38 @@ class StudentTest {
         student = new Student(1, "John", "Doe");
     }
 
+    @Test
+    void testReadAccessorsAreCachedUntilMutation() {
+        Student student = new Student(42, "Olha", "Kobylianska");
+        student.addOrUpdateDiscipline(new Discipline("Math", 10));
+        student.addOrUpdateDiscipline(new Discipline("Art", 6));
+
+        assertEquals(8.0, student.calculateAverageGrade(), 0.001);
+        List<Discipline> view = student.disciplinesView();
+        assertSame(view, student.disciplinesView()); // Без змін - той самий список
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new Discipline("History", 9)));
+        assertThrows(UnsupportedOperationException.class, () -> view.get(0).setGrade(1));
+
+        StringBuilder visited = new StringBuilder();
+        student.forEachDiscipline((name, grade) -> visited.append(name).append('=').append(grade).append(';'));
+        assertEquals("Math=10;Art=6;", visited.toString());
+
+        student.addOrUpdateDiscipline(new Discipline("math", 12));
+        assertEquals(9.0, student.calculateAverageGrade(), 0.001);
+        assertNotSame(view, student.disciplinesView());
+        assertEquals(10, view.get(0).getGrade()); // Старий список не змінюється
+        assertEquals(12, student.disciplinesView().get(0).getGrade());
+        student.removeDiscipline("Art");
+        assertEquals(12.0, student.calculateAverageGrade(), 0.001);
+        assertEquals(1, student.disciplineCount());
+
+        // getDisciplines, як і раніше, повертає змінну копію
+        List<Discipline> copy = student.getDisciplines();
+        copy.get(0).setGrade(3);
+        copy.add(new Discipline("History", 9));
+        assertEquals(12.0, student.calculateAverageGrade(), 0.001);
+    }
+
     @Test
     void testStudentCreationEmptyName() {
         assertThrows(IllegalArgumentException.class, () -> new Student(2, "", "Doe"));
@@ -245,6 +1082,56 @@ class StudentTest {
         assertEquals(11.0, student.calculateAverageGrade());
     }
 
+    @Test
+    void testDisciplineLookupIgnoresCaseAndKeepsOrder() {
+        student.setDisciplines(List.of(new Discipline("Physics", 9), new Discipline("Math", 8), new Discipline("Art", 7)));
+        student.addOrUpdateDiscipline(new Discipline("MATH", 12));
+        assertTrue(student.removeDiscipline("physics"));
+        assertFalse(student.removeDiscipline("Chemistry"));
+
+        List<Discipline> disciplines = student.getDisciplines();
+        assertEquals(2, disciplines.size());
+        assertEquals("Math", disciplines.get(0).getName());
+        assertEquals(12, disciplines.get(0).getGrade());
+        assertEquals("Art", disciplines.get(1).getName());
+    }
+
+    @Test
+    void testManyDisciplinesUpdateAndRemove() {
+        for (int i = 1; i <= 20; i++) {
+            student.addOrUpdateDiscipline(new Discipline("Subject" + i, i % 12 + 1));
+        }
+        student.addOrUpdateDiscipline(new Discipline("SUBJECT15", 12));
+        assertTrue(student.removeDiscipline("subject3"));
+        assertFalse(student.removeDiscipline("Subject3"));
+
+        List<Discipline> disciplines = student.getDisciplines();
+        assertEquals(19, disciplines.size());
+        assertEquals("Subject4", disciplines.get(2).getName());
+        assertEquals(12, disciplines.get(13).getGrade()); // Subject15
+        double expected = disciplines.stream().mapToInt(Discipline::getGrade).sum() / 19.0;
+        assertEquals(expected, student.calculateAverageGrade());
+    }
+
+    @Test
+    void testAddOrUpdateDisciplinesBatch() {
+        student.addOrUpdateDiscipline(new Discipline("Math", 5));
+        List<Discipline> batch = new ArrayList<>();
+        batch.add(new Discipline("math", 11)); // Оновлення наявної
+        batch.add(new Discipline("History", 7));
+        batch.add(null);
+        batch.add(new Discipline("Chemistry", 300)); // Не вміщується в byte: учень переходить на int-оцінки
+
+        BatchResult<Discipline> result = student.addOrUpdateDisciplines(batch);
+
+        assertEquals(3, result.getAcceptedCount());
+        assertEquals(1, result.getRejected().size());
+        assertEquals("[Math: 11, History: 7, Chemistry: 300]", student.getDisciplines().toString());
+        assertEquals(106.0, student.calculateAverageGrade());
+        assertTrue(student.removeDiscipline("History"));
+        assertEquals("[Math: 11, Chemistry: 300]", student.getDisciplines().toString());
+    }
+
     @Test
     void testRemoveDisciplineExists() {
         Discipline math = new Discipline("Math", 10);